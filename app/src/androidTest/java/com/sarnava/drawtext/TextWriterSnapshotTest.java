@@ -0,0 +1,69 @@
+package com.sarnava.drawtext;
+
+import android.graphics.Bitmap;
+import android.graphics.Canvas;
+import android.graphics.Color;
+
+import androidx.test.core.app.ActivityScenario;
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+import androidx.test.platform.app.InstrumentationRegistry;
+
+import com.sarnava.textwriter.TextWriter;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import static org.junit.Assert.*;
+
+/**
+ * Draws the written text of a view attached to a hardware accelerated window into a bitmap, the
+ * way a screenshot or a transition does
+ */
+@RunWith(AndroidJUnit4.class)
+public class TextWriterSnapshotTest {
+
+    @Test
+    public void draw_keepsTheWrittenLettersOnABitmap() {
+
+        ActivityScenario<MainActivity> scenario = ActivityScenario.launch(MainActivity.class);
+        try {
+            //the view is laid out and the writing started
+            InstrumentationRegistry.getInstrumentation().waitForIdleSync();
+
+            scenario.onActivity(new ActivityScenario.ActivityAction<MainActivity>() {
+                @Override
+                public void perform(MainActivity activity) {
+
+                    TextWriter textWriter = activity.findViewById(R.id.tw);
+
+                    for(TextWriter.RenderMode renderMode : TextWriter.RenderMode.values()) {
+
+                        textWriter.setRenderMode(renderMode).setProgress(1);
+
+                        Bitmap bitmap = Bitmap.createBitmap(textWriter.getWidth(), textWriter.getHeight(), Bitmap.Config.ARGB_8888);
+                        textWriter.draw(new Canvas(bitmap));
+
+                        assertTrue(renderMode.name(), countInk(bitmap) > 0);
+                        bitmap.recycle();
+                    }
+                }
+            });
+        } finally {
+            scenario.close();
+        }
+    }
+
+    private static int countInk(Bitmap bitmap) {
+
+        int[] pixels = new int[bitmap.getWidth() * bitmap.getHeight()];
+        bitmap.getPixels(pixels, 0, bitmap.getWidth(), 0, 0, bitmap.getWidth(), bitmap.getHeight());
+
+        int ink = 0;
+        for(int pixel : pixels) {
+
+            if(Color.alpha(pixel) != 0)
+                ink++;
+        }
+        return ink;
+    }
+}
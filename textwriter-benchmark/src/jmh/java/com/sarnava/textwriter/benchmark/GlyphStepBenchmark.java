@@ -0,0 +1,93 @@
+package com.sarnava.textwriter.benchmark;
+
+import com.sarnava.textwriter.core.StrokePlayer;
+import com.sarnava.textwriter.core.StrokeRenderer;
+import com.sarnava.textwriter.core.StrokeTimeline;
+import com.sarnava.textwriter.core.TextLayout;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Measures a single frame of writing each letter, averaged over all the frames it takes to write
+ * the letter, and a single frame of a text written and un-written with every stagger, where the
+ * player keeps track of the letters in progress
+ */
+public class GlyphStepBenchmark {
+
+    private static final int FRAMES = 60;
+
+    @State(Scope.Benchmark)
+    public static class Letter {
+
+        @Param({"A", "B", "C", "D", "E", "F", "G", "H", "I", "J", "K", "L", "M",
+                "N", "O", "P", "Q", "R", "S", "T", "U", "V", "W", "X", "Y", "Z"})
+        public String letter;
+
+        private StrokeTimeline timeline;
+        private StrokeRenderer renderer;
+
+        @Setup
+        public void setUp(Blackhole blackhole) {
+
+            timeline = new StrokeTimeline();
+            new TextLayout(37.5f, 50, 30).layout(letter, 1080, 1920, timeline);
+            renderer = Texts.consumer(blackhole);
+        }
+    }
+
+    @State(Scope.Benchmark)
+    public static class Text {
+
+        @Param({"SEQUENTIAL", "LETTER", "WORD", "ALL_AT_ONCE"})
+        public String stagger;
+
+        private final StrokeTimeline timeline = new StrokeTimeline();
+        private final StrokePlayer player = new StrokePlayer();
+        private StrokeRenderer renderer;
+
+        @Setup
+        public void setUp(Blackhole blackhole) {
+
+            new TextLayout(37.5f, 50, 30).layout(Texts.generate(100), 1080, 1920, timeline);
+            player.setStagger(Texts.stagger(stagger)).start(timeline);
+            renderer = Texts.consumer(blackhole);
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(FRAMES)
+    public int frame(Letter state) {
+
+        StrokeTimeline timeline = state.timeline;
+
+        int written = 0;
+        for(int frame = 1; frame <= FRAMES; frame++)
+            written = timeline.reveal(written, timeline.getLength() * frame / FRAMES, state.renderer, state.renderer);
+
+        return written;
+    }
+
+    /**
+     * Writes the text and un-writes it again, like a ping-pong, so the letters are started and
+     * completed as well as taken back
+     */
+    @Benchmark
+    @OperationsPerInvocation(2 * FRAMES)
+    public int staggeredFrame(Text state) {
+
+        StrokePlayer player = state.player;
+
+        for(int frame = 1; frame <= FRAMES; frame++)
+            player.reveal((float) frame / FRAMES, state.renderer, state.renderer);
+        for(int frame = FRAMES - 1; frame >= 0; frame--)
+            player.reveal((float) frame / FRAMES, state.renderer, state.renderer);
+
+        return player.getOpenSegments();
+    }
+}
@@ -0,0 +1,46 @@
+package com.sarnava.textwriter.benchmark;
+
+import com.sarnava.textwriter.core.StrokeTimeline;
+import com.sarnava.textwriter.core.TextLayout;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Measures the width computation and the placement of the letters that run when an animation is
+ * started
+ */
+@State(Scope.Benchmark)
+public class LayoutBenchmark {
+
+    @Param({"10", "100", "1000"})
+    public int length;
+
+    private String text;
+    private TextLayout layout;
+    private StrokeTimeline timeline;
+
+    @Setup
+    public void setUp() {
+
+        text = Texts.generate(length);
+        layout = new TextLayout(37.5f, 50, 30);
+        timeline = new StrokeTimeline();
+    }
+
+    @Benchmark
+    public float measure() {
+
+        return layout.measure(text);
+    }
+
+    @Benchmark
+    public StrokeTimeline layout() {
+
+        layout.layout(text, 1080, 1920, timeline);
+        return timeline;
+    }
+}
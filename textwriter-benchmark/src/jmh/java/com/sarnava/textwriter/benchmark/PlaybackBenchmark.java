@@ -0,0 +1,59 @@
+package com.sarnava.textwriter.benchmark;
+
+import com.sarnava.textwriter.core.StrokePlayer;
+import com.sarnava.textwriter.core.StrokeRenderer;
+import com.sarnava.textwriter.core.StrokeTimeline;
+import com.sarnava.textwriter.core.TextLayout;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Measures writing a whole text from the first to the last frame the way TextWriter plays it, with
+ * the pen moving by half the letter height per frame like its default pace
+ */
+@State(Scope.Benchmark)
+public class PlaybackBenchmark {
+
+    private static final float VERTICAL_BOUND = 50;
+
+    @Param({"10", "100", "1000"})
+    public int length;
+
+    @Param({"SEQUENTIAL", "LETTER", "WORD", "ALL_AT_ONCE"})
+    public String stagger;
+
+    private String text;
+    private TextLayout layout;
+    private StrokeTimeline timeline;
+    private final StrokePlayer player = new StrokePlayer();
+    private StrokeRenderer renderer;
+
+    @Setup
+    public void setUp(Blackhole blackhole) {
+
+        text = Texts.generate(length);
+        layout = new TextLayout(37.5f, VERTICAL_BOUND, 30);
+        timeline = new StrokeTimeline();
+        renderer = Texts.consumer(blackhole);
+        player.setStagger(Texts.stagger(stagger));
+    }
+
+    @Benchmark
+    public int playback() {
+
+        layout.layout(text, 1080, 1920, timeline);
+        player.start(timeline);
+
+        //the paced length sets the number of frames the same way for every stagger
+        int frames = Math.max(1, (int) Math.ceil(player.getPacedLength() / (VERTICAL_BOUND/2)));
+        for(int frame = 1; frame <= frames; frame++)
+            player.reveal((float) frame / frames, renderer, renderer);
+
+        return player.getCompletedCount();
+    }
+}
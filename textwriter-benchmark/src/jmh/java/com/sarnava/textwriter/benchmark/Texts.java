@@ -0,0 +1,87 @@
+package com.sarnava.textwriter.benchmark;
+
+import com.sarnava.textwriter.core.Stagger;
+import com.sarnava.textwriter.core.StrokeRenderer;
+
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.Random;
+
+/**
+ * Inputs and sinks shared by the benchmarks
+ */
+final class Texts {
+
+    private Texts() {}
+
+    /**
+     * @return a reproducible text of uppercase words separated by single spaces, which neither
+     * starts nor ends with a space
+     */
+    static String generate(int length){
+
+        Random random = new Random(length);
+        StringBuilder builder = new StringBuilder(length);
+
+        while(builder.length() < length){
+
+            //a space is never the first or the last character and never follows another space
+            boolean space = builder.length() > 0
+                    && builder.length() < length - 1
+                    && builder.charAt(builder.length() - 1) != ' '
+                    && random.nextInt(6) == 0;
+
+            builder.append(space ? ' ' : (char) ('A' + random.nextInt(26)));
+        }
+        return builder.toString();
+    }
+
+    /**
+     * @return the {@link Stagger} of the mode, letters start half of their time after the one
+     * before
+     */
+    static Stagger stagger(String mode){
+
+        switch(Stagger.Mode.valueOf(mode)){
+
+            case LETTER:
+                return Stagger.letters(0.5f);
+            case WORD:
+                return Stagger.WORD;
+            case ALL_AT_ONCE:
+                return Stagger.ALL_AT_ONCE;
+            default:
+                return Stagger.SEQUENTIAL;
+        }
+    }
+
+    /**
+     * @return a {@link StrokeRenderer} that hands every coordinate to the {@link Blackhole}
+     */
+    static StrokeRenderer consumer(final Blackhole blackhole){
+
+        return new StrokeRenderer() {
+            @Override
+            public void moveTo(float x, float y) {
+
+                blackhole.consume(x);
+                blackhole.consume(y);
+            }
+
+            @Override
+            public void lineTo(float x, float y) {
+
+                blackhole.consume(x);
+                blackhole.consume(y);
+            }
+
+            @Override
+            public void arcTo(float left, float top, float right, float bottom, float startAngle, float sweepAngle) {
+
+                blackhole.consume(left);
+                blackhole.consume(bottom);
+                blackhole.consume(sweepAngle);
+            }
+        };
+    }
+}
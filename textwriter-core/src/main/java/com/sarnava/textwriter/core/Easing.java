@@ -0,0 +1,73 @@
+
+/*
+ *
+ * MIT License
+ *
+ * Copyright (c) 2020 Sarnava Konar
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.sarnava.textwriter.core;
+
+/**
+ * Maps the elapsed part of the writing time to the written part of the text or of a stroke.
+ * The lengths being true arc lengths, the linear easing moves the pen at a constant speed. An
+ * easing has to map 0 to 0 and 1 to 1 and never go back in between, the written strokes are
+ * never taken back
+ */
+public interface Easing {
+
+    float getInterpolation(float input);
+
+    Easing LINEAR = new Easing() {
+        @Override
+        public float getInterpolation(float input) {
+
+            return input;
+        }
+    };
+
+    //starts slow and speeds up
+    Easing EASE_IN = new Easing() {
+        @Override
+        public float getInterpolation(float input) {
+
+            return input * input;
+        }
+    };
+
+    //starts fast and slows down
+    Easing EASE_OUT = new Easing() {
+        @Override
+        public float getInterpolation(float input) {
+
+            return input * (2 - input);
+        }
+    };
+
+    //starts and ends slow, like a pen put down and lifted again
+    Easing EASE_IN_OUT = new Easing() {
+        @Override
+        public float getInterpolation(float input) {
+
+            return input * input * (3 - 2 * input);
+        }
+    };
+}
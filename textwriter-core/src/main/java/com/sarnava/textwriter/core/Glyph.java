@@ -0,0 +1,309 @@
+
+/*
+ *
+ * MIT License
+ *
+ * Copyright (c) 2020 Sarnava Konar
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.sarnava.textwriter.core;
+
+import java.util.Arrays;
+
+/**
+ * Immutable outline of a single letter, described as a list of line and arc segments in the order
+ * the pen draws them. Coordinates are relative to the centre of the letter, the x-axis in units
+ * of the horizontal bound and the y-axis in units of the vertical bound, so the same description
+ * serves every configuration and size factor through {@link #scale(float, float)}
+ */
+public final class Glyph {
+
+    static final int LINE = 0, ARC = 1;
+
+    //every segment is stored as [type, starts a new stroke, startX, startY, params...] where the
+    //params are [endX, endY] for a line and [left, top, right, bottom, startAngle, sweepAngle]
+    //for an arc
+    static final int STRIDE = 10;
+
+    //arcs are split in pieces of at most this sweep, so that a partially drawn arc follows its
+    //length closely and no single arcTo() call has to cover a full circle
+    private static final float MAX_ARC_SWEEP = 90;
+    private static final int ARC_LENGTH_STEPS = 16;
+    private static final float EPSILON = 1e-4f;
+
+    private final float left, right, bottom;
+    private final float[] segments;
+    private final float[] lengths;
+    private final float length;
+
+    private Glyph(float left, float right, float[] segments) {
+
+        this.left = left;
+        this.right = right;
+        this.segments = segments;
+
+        lengths = new float[segments.length / STRIDE];
+        float total = 0, lowest = 0;
+        for(int i=0; i<lengths.length; i++){
+
+            lengths[i] = measure(segments, i * STRIDE);
+            total += lengths[i];
+            lowest = Math.max(lowest, bottom(segments, i * STRIDE));
+        }
+        length = total;
+        bottom = lowest;
+    }
+
+    /**
+     * @return the distance from the centre of the letter to its left edge
+     */
+    public float getLeft(){
+
+        return left;
+    }
+
+    /**
+     * @return the distance from the centre of the letter to its right edge
+     */
+    public float getRight(){
+
+        return right;
+    }
+
+    /**
+     * @return the distance from the centre of the letter down to the lowest point of its strokes,
+     * more than the vertical bound for a letter with a descender
+     */
+    public float getBottom(){
+
+        return bottom;
+    }
+
+    public float getWidth(){
+
+        return left + right;
+    }
+
+    public int getSegmentCount(){
+
+        return lengths.length;
+    }
+
+    public float getSegmentLength(int index){
+
+        return lengths[index];
+    }
+
+    /**
+     * @return the total length of all the strokes of the letter
+     */
+    public float getLength(){
+
+        return length;
+    }
+
+    /**
+     * Creates the same letter scaled by the given bounds, the horizontal one applies to the
+     * x-axis and the vertical one to the y-axis
+     */
+    public Glyph scale(float horizontalBound, float verticalBound){
+
+        float[] scaled = new float[segments.length];
+        copySegments(scaled, 0, horizontalBound, verticalBound, 0, 0);
+
+        return new Glyph(left * horizontalBound, right * horizontalBound, scaled);
+    }
+
+    /**
+     * Writes all the segments of the letter to {@param dst} after scaling them by
+     * ({@param scaleX}, {@param scaleY}) and moving them by ({@param dx}, {@param dy})
+     */
+    void copySegments(float[] dst, int offset, float scaleX, float scaleY, float dx, float dy){
+
+        for(int i=0; i<segments.length; i+=STRIDE){
+
+            int o = offset + i;
+            dst[o] = segments[i];
+            dst[o+1] = segments[i+1];
+            dst[o+2] = segments[i+2] * scaleX + dx;
+            dst[o+3] = segments[i+3] * scaleY + dy;
+            dst[o+4] = segments[i+4] * scaleX + dx;
+            dst[o+5] = segments[i+5] * scaleY + dy;
+
+            if(segments[i] == ARC){
+
+                dst[o+6] = segments[i+6] * scaleX + dx;
+                dst[o+7] = segments[i+7] * scaleY + dy;
+                dst[o+8] = segments[i+8];
+                dst[o+9] = segments[i+9];
+            }
+        }
+    }
+
+    private static float bottom(float[] segments, int o){
+
+        if(segments[o] == LINE)
+            return Math.max(segments[o+3], segments[o+5]);
+
+        //an arc is at its lowest at 90 degrees, if it sweeps that far, or else at one of its ends
+        float start = segments[o+8], end = start + segments[o+9];
+        float from = Math.min(start, end), to = Math.max(start, end);
+        if(Math.floor((to - 90) / 360) * 360 + 90 >= from)
+            return segments[o+7];
+
+        float centreY = (segments[o+5] + segments[o+7]) / 2, radiusY = (segments[o+7] - segments[o+5]) / 2;
+        return Math.max(segments[o+3], centreY + radiusY * (float) Math.sin(Math.toRadians(end)));
+    }
+
+    private static float measure(float[] segments, int o){
+
+        if(segments[o] == LINE)
+            return (float) Math.hypot(segments[o+4] - segments[o+2], segments[o+5] - segments[o+3]);
+
+        //sums up the chords of the arc, the arc is an elliptical one so there is no closed form
+        double radiusX = (segments[o+6] - segments[o+4]) / 2, radiusY = (segments[o+7] - segments[o+5]) / 2;
+        double start = Math.toRadians(segments[o+8]), sweep = Math.toRadians(segments[o+9]);
+        double length = 0, x = radiusX * Math.cos(start), y = radiusY * Math.sin(start);
+        for(int i=1; i<=ARC_LENGTH_STEPS; i++){
+
+            double angle = start + sweep * i / ARC_LENGTH_STEPS;
+            double nextX = radiusX * Math.cos(angle), nextY = radiusY * Math.sin(angle);
+            length += Math.hypot(nextX - x, nextY - y);
+            x = nextX;
+            y = nextY;
+        }
+        return (float) length;
+    }
+
+    /**
+     * Describes a letter the same way it would be drawn on an {@code android.graphics.Path}
+     */
+    public static final class Builder {
+
+        private final float left, right;
+        private float[] segments = new float[8 * STRIDE];
+        private int size;
+        private float penX, penY;
+        private boolean hasPen, moved;
+
+        public Builder(float left, float right) {
+
+            this.left = left;
+            this.right = right;
+        }
+
+        public Builder moveTo(float x, float y){
+
+            penX = x;
+            penY = y;
+            hasPen = true;
+            moved = true;
+            return this;
+        }
+
+        public Builder lineTo(float x, float y){
+
+            float[] segment = next();
+            segment[size] = LINE;
+            segment[size+1] = moved ? 1 : 0;
+            segment[size+2] = penX;
+            segment[size+3] = penY;
+            segment[size+4] = x;
+            segment[size+5] = y;
+            size += STRIDE;
+
+            penX = x;
+            penY = y;
+            moved = false;
+            return this;
+        }
+
+        /**
+         * Continues the current stroke with an arc, a line is added if the arc doesn't start at
+         * the current position of the pen
+         */
+        public Builder arcTo(float left, float top, float right, float bottom, float startAngle, float sweepAngle){
+
+            float startX = arcX(left, right, startAngle), startY = arcY(top, bottom, startAngle);
+
+            if(!hasPen)
+                moveTo(startX, startY);
+            else if(Math.abs(startX - penX) > EPSILON || Math.abs(startY - penY) > EPSILON)
+                lineTo(startX, startY);
+
+            int pieces = (int) Math.ceil(Math.abs(sweepAngle) / MAX_ARC_SWEEP);
+            float pieceSweep = sweepAngle / pieces;
+            for(int i=0; i<pieces; i++){
+
+                float pieceStart = startAngle + pieceSweep * i;
+                float[] segment = next();
+                segment[size] = ARC;
+                segment[size+1] = moved ? 1 : 0;
+                segment[size+2] = penX;
+                segment[size+3] = penY;
+                segment[size+4] = left;
+                segment[size+5] = top;
+                segment[size+6] = right;
+                segment[size+7] = bottom;
+                segment[size+8] = pieceStart;
+                segment[size+9] = pieceSweep;
+                size += STRIDE;
+
+                penX = arcX(left, right, pieceStart + pieceSweep);
+                penY = arcY(top, bottom, pieceStart + pieceSweep);
+                moved = false;
+            }
+            return this;
+        }
+
+        /**
+         * Starts a new stroke with an arc
+         */
+        public Builder addArc(float left, float top, float right, float bottom, float startAngle, float sweepAngle){
+
+            moveTo(arcX(left, right, startAngle), arcY(top, bottom, startAngle));
+            return arcTo(left, top, right, bottom, startAngle, sweepAngle);
+        }
+
+        public Glyph build(){
+
+            return new Glyph(left, right, Arrays.copyOf(segments, size));
+        }
+
+        private float[] next(){
+
+            if(size + STRIDE > segments.length)
+                segments = Arrays.copyOf(segments, segments.length * 2);
+
+            return segments;
+        }
+
+        private static float arcX(float left, float right, float angle){
+
+            return (float) ((left + right) / 2 + (right - left) / 2 * Math.cos(Math.toRadians(angle)));
+        }
+
+        private static float arcY(float top, float bottom, float angle){
+
+            return (float) ((top + bottom) / 2 + (bottom - top) / 2 * Math.sin(Math.toRadians(angle)));
+        }
+    }
+}
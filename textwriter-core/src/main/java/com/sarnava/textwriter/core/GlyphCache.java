@@ -0,0 +1,96 @@
+
+/*
+ *
+ * MIT License
+ *
+ * Copyright (c) 2020 Sarnava Konar
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.sarnava.textwriter.core;
+
+/**
+ * Keeps the letters of a {@link GlyphRegistry} scaled for a pair of bounds, so the geometry of a
+ * letter is computed only once per size no matter how many times or in how many views it is
+ * written. A letter is scaled the first time it is looked up. The cache is shared by all the
+ * texts of the same size, so it can be used from any thread
+ */
+public final class GlyphCache implements GlyphSource {
+
+    private final GlyphRegistry registry;
+    private final float horizontalBound, verticalBound;
+    private final GlyphPages glyphs = new GlyphPages();
+    private int modifications;
+
+    private GlyphCache(GlyphRegistry registry, float horizontalBound, float verticalBound) {
+
+        this.registry = registry;
+        this.horizontalBound = horizontalBound;
+        this.verticalBound = verticalBound;
+        this.modifications = registry.getModifications();
+    }
+
+    /**
+     * @return the letters of the registry scaled by the given bounds
+     */
+    public static GlyphCache get(GlyphRegistry registry, float horizontalBound, float verticalBound){
+
+        //both bounds together fit in a single long key
+        long key = (long) Float.floatToIntBits(verticalBound) << 32
+                | Float.floatToIntBits(horizontalBound) & 0xFFFFFFFFL;
+
+        synchronized (registry.caches) {
+
+            GlyphCache cache = registry.caches.get(key);
+
+            if(cache == null) {
+
+                cache = new GlyphCache(registry, horizontalBound, verticalBound);
+                registry.caches.put(key, cache);
+            }
+            return cache;
+        }
+    }
+
+    @Override
+    public synchronized Glyph getGlyph(int codePoint){
+
+        //the letters scaled so far are dropped once the registry changes
+        int current = registry.getModifications();
+        if(current != modifications){
+
+            glyphs.clear();
+            modifications = current;
+        }
+
+        Glyph glyph = glyphs.get(codePoint);
+
+        if(glyph == null){
+
+            Glyph normalized = registry.get(codePoint);
+            if(normalized == null)
+                return null;
+
+            glyph = normalized.scale(horizontalBound, verticalBound);
+            glyphs.put(codePoint, glyph);
+        }
+        return glyph;
+    }
+}
@@ -0,0 +1,66 @@
+
+/*
+ *
+ * MIT License
+ *
+ * Copyright (c) 2020 Sarnava Konar
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.sarnava.textwriter.core;
+
+/**
+ * A two level table of glyphs indexed by code point. The pages of 256 code points are created
+ * only when a glyph is put on them, so a lookup is two array reads for any code point
+ */
+final class GlyphPages {
+
+    private static final int PAGE_BITS = 8;
+    private static final int PAGE_MASK = (1 << PAGE_BITS) - 1;
+
+    private final Glyph[][] pages = new Glyph[(Character.MAX_CODE_POINT >> PAGE_BITS) + 1][];
+
+    Glyph get(int codePoint){
+
+        if(codePoint < 0 || codePoint > Character.MAX_CODE_POINT)
+            return null;
+
+        Glyph[] page = pages[codePoint >> PAGE_BITS];
+        return page == null ? null : page[codePoint & PAGE_MASK];
+    }
+
+    void put(int codePoint, Glyph glyph){
+
+        Glyph[] page = pages[codePoint >> PAGE_BITS];
+
+        if(page == null){
+
+            page = new Glyph[PAGE_MASK + 1];
+            pages[codePoint >> PAGE_BITS] = page;
+        }
+        page[codePoint & PAGE_MASK] = glyph;
+    }
+
+    void clear(){
+
+        for(int i=0; i<pages.length; i++)
+            pages[i] = null;
+    }
+}
@@ -0,0 +1,109 @@
+
+/*
+ *
+ * MIT License
+ *
+ * Copyright (c) 2020 Sarnava Konar
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.sarnava.textwriter.core;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * The letters TextWriter can draw, looked up by their Unicode code point. The default registry
+ * holds all the {@link GlyphSets} shipped with the library, more sets or single letters can be
+ * registered on it or on a registry of your own. Letters should be registered before the texts
+ * that use them are laid out
+ */
+public final class GlyphRegistry {
+
+    private static final GlyphRegistry DEFAULT = new GlyphRegistry()
+            .register(GlyphSets.WHITESPACE)
+            .register(GlyphSets.UPPERCASE)
+            .register(GlyphSets.LOWERCASE)
+            .register(GlyphSets.DIGITS)
+            .register(GlyphSets.PUNCTUATION);
+
+    //the number of sizes the letters are kept scaled for, a text fitted to views of many sizes
+    //scales them for every one of them
+    static final int CACHE_CAPACITY = 16;
+
+    private final GlyphPages glyphs = new GlyphPages();
+
+    //the scaled copies of this registry, keyed by both the bounds together. The size used least
+    //recently is dropped once there are too many
+    final Map<Long, GlyphCache> caches = new LinkedHashMap<Long, GlyphCache>(CACHE_CAPACITY, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Long, GlyphCache> eldest) {
+
+            return size() > CACHE_CAPACITY;
+        }
+    };
+
+    //changes whenever a letter is registered, so the scaled copies know they are stale
+    private volatile int modifications;
+
+    /**
+     * @return the registry with all the shipped glyph sets
+     */
+    public static GlyphRegistry getDefault(){
+
+        return DEFAULT;
+    }
+
+    /**
+     * Registers every letter of the set, replacing the letters already registered for the same
+     * code points
+     */
+    public synchronized GlyphRegistry register(GlyphSet set){
+
+        for(int i=0; i<set.size(); i++)
+            glyphs.put(set.getCodePoint(i), set.getGlyph(i));
+
+        modifications++;
+        return this;
+    }
+
+    public synchronized GlyphRegistry register(int codePoint, Glyph glyph){
+
+        if(codePoint < 0 || codePoint > Character.MAX_CODE_POINT)
+            throw new RuntimeException("Invalid code point");
+
+        glyphs.put(codePoint, glyph);
+        modifications++;
+        return this;
+    }
+
+    /**
+     * @return the normalized {@link Glyph} of the code point or null if it can't be drawn
+     */
+    public synchronized Glyph get(int codePoint){
+
+        return glyphs.get(codePoint);
+    }
+
+    int getModifications(){
+
+        return modifications;
+    }
+}
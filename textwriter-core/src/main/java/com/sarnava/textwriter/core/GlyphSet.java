@@ -0,0 +1,91 @@
+
+/*
+ *
+ * MIT License
+ *
+ * Copyright (c) 2020 Sarnava Konar
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.sarnava.textwriter.core;
+
+import java.util.Arrays;
+
+/**
+ * An immutable group of letters that are registered together on a {@link GlyphRegistry}, such as
+ * the uppercase letters or the digits. Every letter is keyed by its Unicode code point
+ */
+public final class GlyphSet {
+
+    private final int[] codePoints;
+    private final Glyph[] glyphs;
+
+    private GlyphSet(int[] codePoints, Glyph[] glyphs) {
+
+        this.codePoints = codePoints;
+        this.glyphs = glyphs;
+    }
+
+    public int size(){
+
+        return codePoints.length;
+    }
+
+    public int getCodePoint(int index){
+
+        return codePoints[index];
+    }
+
+    public Glyph getGlyph(int index){
+
+        return glyphs[index];
+    }
+
+    public static final class Builder {
+
+        private int[] codePoints = new int[32];
+        private Glyph[] glyphs = new Glyph[32];
+        private int size;
+
+        public Builder put(int codePoint, Glyph glyph){
+
+            if(size == codePoints.length){
+
+                codePoints = Arrays.copyOf(codePoints, size * 2);
+                glyphs = Arrays.copyOf(glyphs, size * 2);
+            }
+
+            codePoints[size] = codePoint;
+            glyphs[size] = glyph;
+            size++;
+            return this;
+        }
+
+        public Builder put(int codePoint, Glyph.Builder glyph){
+
+            return put(codePoint, glyph.build());
+        }
+
+        public GlyphSet build(){
+
+            return new GlyphSet(Arrays.copyOf(codePoints, size), Arrays.copyOf(glyphs, size));
+        }
+    }
+}
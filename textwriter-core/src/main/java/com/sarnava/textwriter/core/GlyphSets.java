@@ -0,0 +1,373 @@
+
+/*
+ *
+ * MIT License
+ *
+ * Copyright (c) 2020 Sarnava Konar
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.sarnava.textwriter.core;
+
+/**
+ * The glyph sets shipped with TextWriter. Every letter is described only once, in the normalized
+ * units of {@link Glyph}, where the capitals span the whole height from -1 to 1. Lowercase letters
+ * stand on the same baseline with their x-height at the middle, and descenders go down to 3/2
+ */
+public final class GlyphSets {
+
+    private static final float COS_45 = (float) Math.cos(Math.PI/4);
+
+    public static final GlyphSet WHITESPACE = whitespace();
+    public static final GlyphSet UPPERCASE = uppercase();
+    public static final GlyphSet LOWERCASE = lowercase();
+    public static final GlyphSet DIGITS = digits();
+    public static final GlyphSet PUNCTUATION = punctuation();
+
+    private GlyphSets() {}
+
+    private static GlyphSet whitespace(){
+
+        return new GlyphSet.Builder()
+                .put(' ', new Glyph.Builder(1/2f, 1/2f))
+                .build();
+    }
+
+    private static GlyphSet uppercase(){
+
+        GlyphSet.Builder set = new GlyphSet.Builder();
+
+        set.put('A', new Glyph.Builder(1, 1)
+                .moveTo(-1, 1).lineTo(-1/8f, -1).lineTo(1/8f, -1).lineTo(1, 1)
+                .moveTo(-1/2f, 0).lineTo(1/2f, 0));
+
+        set.put('B', new Glyph.Builder(1, 1)
+                .moveTo(-1, 1).lineTo(-1, -1).lineTo(0, -1)
+                .arcTo(-1, -1, 1, 0, 270, 180).lineTo(-1, 0)
+                .addArc(-1, 0, 1, 1, 270, 180).lineTo(-1, 1));
+
+        set.put('C', new Glyph.Builder(1, COS_45)
+                .addArc(-1, -1, 1, 1, -45, -270));
+
+        set.put('D', new Glyph.Builder(1, 1)
+                .moveTo(-1, 1).lineTo(-1, -1)
+                .arcTo(-3, -1, 1, 1, 270, 180));
+
+        set.put('E', new Glyph.Builder(1, 1)
+                .moveTo(1, -1).lineTo(-1, -1).lineTo(-1, 1).lineTo(1, 1)
+                .moveTo(-1, 0).lineTo(1/2f, 0));
+
+        set.put('F', new Glyph.Builder(1, 1)
+                .moveTo(1, -1).lineTo(-1, -1).lineTo(-1, 1)
+                .moveTo(-1, 0).lineTo(1/2f, 0));
+
+        set.put('G', new Glyph.Builder(1, COS_45)
+                .addArc(-1, -1, 1, 1, -45, -270)
+                .lineTo(COS_45, 0).lineTo(COS_45 - 1/2f, 0));
+
+        set.put('H', new Glyph.Builder(1, 1)
+                .moveTo(-1, -1).lineTo(-1, 1)
+                .moveTo(1, -1).lineTo(1, 1)
+                .moveTo(-1, 0).lineTo(1, 0));
+
+        set.put('I', new Glyph.Builder(0, 0)
+                .moveTo(0, -1).lineTo(0, 1));
+
+        set.put('J', new Glyph.Builder(3/4f, 3/4f)
+                .moveTo(3/4f, -1).lineTo(3/4f, 1/2f)
+                .arcTo(-3/4f, 0, 3/4f, 1, 0, 180));
+
+        set.put('K', new Glyph.Builder(1, 1)
+                .moveTo(-1, -1).lineTo(-1, 1)
+                .moveTo(-1, 0).lineTo(1, -1)
+                .moveTo(-1/2f, -1/4f).lineTo(1, 1));
+
+        set.put('L', new Glyph.Builder(3/4f, 3/4f)
+                .moveTo(-3/4f, -1).lineTo(-3/4f, 1).lineTo(3/4f, 1));
+
+        set.put('M', new Glyph.Builder(1, 1)
+                .moveTo(-1, 1).lineTo(-1, -1).lineTo(-7/8f, -1)
+                .lineTo(0, 0)
+                .lineTo(7/8f, -1).lineTo(1, -1).lineTo(1, 1));
+
+        set.put('N', new Glyph.Builder(1, 1)
+                .moveTo(-1, 1).lineTo(-1, -1).lineTo(-7/8f, -1)
+                .lineTo(7/8f, 1).lineTo(1, 1).lineTo(1, -1));
+
+        set.put('O', new Glyph.Builder(1, 1)
+                .addArc(-1, -1, 1, 1, 0, -360));
+
+        set.put('P', new Glyph.Builder(1, 1)
+                .moveTo(-1, 1).lineTo(-1, -1).lineTo(0, -1)
+                .arcTo(-1, -1, 1, 0, 270, 180).lineTo(-1, 0));
+
+        set.put('Q', new Glyph.Builder(1, 1)
+                .addArc(-1, -1, 1, 1, 0, -360)
+                .moveTo(1/2f, 1/2f).lineTo(1, 1));
+
+        set.put('R', new Glyph.Builder(1, 1)
+                .moveTo(-1, 1).lineTo(-1, -1).lineTo(0, -1)
+                .arcTo(-1, -1, 1, 0, 270, 180).lineTo(-1, 0)
+                .moveTo(0, 0).lineTo(1, 1));
+
+        set.put('S', new Glyph.Builder(1, 1)
+                .addArc(-1, -1, 1, 0, 0, -270)
+                .arcTo(-1, 0, 1, 1, -90, 270));
+
+        set.put('T', new Glyph.Builder(1, 1)
+                .moveTo(-1, -1).lineTo(1, -1)
+                .moveTo(0, -1).lineTo(0, 1));
+
+        //the top of the bowl is raised a bit for a rounded figure
+        set.put('U', new Glyph.Builder(3/4f, 3/4f)
+                .moveTo(-3/4f, -1).lineTo(-3/4f, 1/2f)
+                .arcTo(-3/4f, -1/8f, 3/4f, 1, -180, -180)
+                .lineTo(3/4f, -1));
+
+        set.put('V', new Glyph.Builder(1, 1)
+                .moveTo(-1, -1).lineTo(-1/8f, 1).lineTo(1/8f, 1).lineTo(1, -1));
+
+        set.put('W', new Glyph.Builder(1, 1)
+                .moveTo(-1, -1).lineTo(-9/16f, 1).lineTo(-7/16f, 1)
+                .lineTo(-1/16f, -1).lineTo(1/16f, -1)
+                .lineTo(7/16f, 1).lineTo(9/16f, 1).lineTo(1, -1));
+
+        set.put('X', new Glyph.Builder(1, 1)
+                .moveTo(-1, -1).lineTo(1, 1)
+                .moveTo(1, -1).lineTo(-1, 1));
+
+        set.put('Y', new Glyph.Builder(1, 1)
+                .moveTo(-1, -1).lineTo(0, 0).lineTo(1, -1)
+                .moveTo(0, 0).lineTo(0, 1));
+
+        set.put('Z', new Glyph.Builder(1, 1)
+                .moveTo(-1, -1).lineTo(1, -1).lineTo(1, -7/8f)
+                .lineTo(-1, 7/8f).lineTo(-1, 1).lineTo(1, 1));
+
+        return set.build();
+    }
+
+    private static GlyphSet lowercase(){
+
+        GlyphSet.Builder set = new GlyphSet.Builder();
+
+        set.put('a', new Glyph.Builder(3/4f, 3/4f)
+                .addArc(-3/4f, 0, 3/4f, 1, 0, -360)
+                .moveTo(3/4f, 0).lineTo(3/4f, 1));
+
+        set.put('b', new Glyph.Builder(3/4f, 3/4f)
+                .moveTo(-3/4f, -1).lineTo(-3/4f, 1)
+                .addArc(-3/4f, 0, 3/4f, 1, 180, 360));
+
+        set.put('c', new Glyph.Builder(3/4f, 3/4f*COS_45)
+                .addArc(-3/4f, 0, 3/4f, 1, -45, -270));
+
+        set.put('d', new Glyph.Builder(3/4f, 3/4f)
+                .addArc(-3/4f, 0, 3/4f, 1, 0, -360)
+                .moveTo(3/4f, -1).lineTo(3/4f, 1));
+
+        set.put('e', new Glyph.Builder(3/4f, 3/4f)
+                .moveTo(-3/4f, 1/2f).lineTo(3/4f, 1/2f)
+                .arcTo(-3/4f, 0, 3/4f, 1, 0, -315));
+
+        set.put('f', new Glyph.Builder(1/2f, 1/2f)
+                .addArc(-1/4f, -1, 5/4f, 0, 270, -90).lineTo(-1/4f, 1)
+                .moveTo(-1/2f, 0).lineTo(1/4f, 0));
+
+        set.put('g', new Glyph.Builder(3/4f, 3/4f)
+                .addArc(-3/4f, 0, 3/4f, 1, 0, -360)
+                .moveTo(3/4f, 0).lineTo(3/4f, 5/4f)
+                .arcTo(-3/4f, 1, 3/4f, 3/2f, 0, 180));
+
+        set.put('h', new Glyph.Builder(3/4f, 3/4f)
+                .moveTo(-3/4f, -1).lineTo(-3/4f, 1)
+                .addArc(-3/4f, 0, 3/4f, 1, 180, 180).lineTo(3/4f, 1));
+
+        //the dots are short strokes, the round cap of the paint makes them look round
+        set.put('i', new Glyph.Builder(0, 0)
+                .moveTo(0, 0).lineTo(0, 1)
+                .moveTo(0, -1/2f).lineTo(0, -7/16f));
+
+        set.put('j', new Glyph.Builder(1/2f, 1/4f)
+                .moveTo(1/4f, 0).lineTo(1/4f, 5/4f)
+                .arcTo(-3/4f, 1, 1/4f, 3/2f, 0, 180)
+                .moveTo(1/4f, -1/2f).lineTo(1/4f, -7/16f));
+
+        set.put('k', new Glyph.Builder(1/2f, 1/2f)
+                .moveTo(-1/2f, -1).lineTo(-1/2f, 1)
+                .moveTo(1/2f, 0).lineTo(-1/2f, 5/8f)
+                .moveTo(-1/8f, 3/8f).lineTo(1/2f, 1));
+
+        set.put('l', new Glyph.Builder(0, 0)
+                .moveTo(0, -1).lineTo(0, 1));
+
+        set.put('m', new Glyph.Builder(1, 1)
+                .moveTo(-1, 0).lineTo(-1, 1)
+                .addArc(-1, 0, 0, 1, 180, 180).lineTo(0, 1)
+                .addArc(0, 0, 1, 1, 180, 180).lineTo(1, 1));
+
+        set.put('n', new Glyph.Builder(3/4f, 3/4f)
+                .moveTo(-3/4f, 0).lineTo(-3/4f, 1)
+                .addArc(-3/4f, 0, 3/4f, 1, 180, 180).lineTo(3/4f, 1));
+
+        set.put('o', new Glyph.Builder(3/4f, 3/4f)
+                .addArc(-3/4f, 0, 3/4f, 1, 0, -360));
+
+        set.put('p', new Glyph.Builder(3/4f, 3/4f)
+                .moveTo(-3/4f, 0).lineTo(-3/4f, 3/2f)
+                .addArc(-3/4f, 0, 3/4f, 1, 180, 360));
+
+        set.put('q', new Glyph.Builder(3/4f, 3/4f)
+                .addArc(-3/4f, 0, 3/4f, 1, 0, -360)
+                .moveTo(3/4f, 0).lineTo(3/4f, 3/2f));
+
+        set.put('r', new Glyph.Builder(1/2f, 1/2f)
+                .moveTo(-1/2f, 0).lineTo(-1/2f, 1)
+                .addArc(-1/2f, 0, 3/2f, 1, 180, 90));
+
+        set.put('s', new Glyph.Builder(1/2f, 1/2f)
+                .addArc(-1/2f, 0, 1/2f, 1/2f, 0, -270)
+                .arcTo(-1/2f, 1/2f, 1/2f, 1, -90, 270));
+
+        set.put('t', new Glyph.Builder(1/2f, 1/2f)
+                .moveTo(0, -3/4f).lineTo(0, 3/4f)
+                .arcTo(0, 1/2f, 1/2f, 1, 180, -90)
+                .moveTo(-1/2f, 0).lineTo(1/2f, 0));
+
+        set.put('u', new Glyph.Builder(3/4f, 3/4f)
+                .moveTo(-3/4f, 0).lineTo(-3/4f, 1/2f)
+                .arcTo(-3/4f, 0, 3/4f, 1, 180, -180)
+                .moveTo(3/4f, 0).lineTo(3/4f, 1));
+
+        set.put('v', new Glyph.Builder(3/4f, 3/4f)
+                .moveTo(-3/4f, 0).lineTo(0, 1).lineTo(3/4f, 0));
+
+        set.put('w', new Glyph.Builder(1, 1)
+                .moveTo(-1, 0).lineTo(-1/2f, 1).lineTo(0, 1/4f)
+                .lineTo(1/2f, 1).lineTo(1, 0));
+
+        set.put('x', new Glyph.Builder(3/4f, 3/4f)
+                .moveTo(-3/4f, 0).lineTo(3/4f, 1)
+                .moveTo(3/4f, 0).lineTo(-3/4f, 1));
+
+        set.put('y', new Glyph.Builder(3/4f, 3/4f)
+                .moveTo(-3/4f, 0).lineTo(0, 1)
+                .moveTo(3/4f, 0).lineTo(-3/8f, 3/2f));
+
+        set.put('z', new Glyph.Builder(3/4f, 3/4f)
+                .moveTo(-3/4f, 0).lineTo(3/4f, 0)
+                .lineTo(-3/4f, 1).lineTo(3/4f, 1));
+
+        return set.build();
+    }
+
+    private static GlyphSet digits(){
+
+        GlyphSet.Builder set = new GlyphSet.Builder();
+
+        set.put('0', new Glyph.Builder(3/4f, 3/4f)
+                .addArc(-3/4f, -1, 3/4f, 1, 0, -360));
+
+        set.put('1', new Glyph.Builder(1/2f, 1/2f)
+                .moveTo(-1/2f, -1/2f).lineTo(0, -1).lineTo(0, 1)
+                .moveTo(-1/2f, 1).lineTo(1/2f, 1));
+
+        set.put('2', new Glyph.Builder(3/4f, 3/4f)
+                .addArc(-3/4f, -1, 3/4f, 0, 180, 180)
+                .lineTo(-3/4f, 1).lineTo(3/4f, 1));
+
+        set.put('3', new Glyph.Builder(3/4f, 3/4f)
+                .addArc(-3/4f, -1, 3/4f, 0, 180, 270)
+                .arcTo(-3/4f, 0, 3/4f, 1, 270, 270));
+
+        set.put('4', new Glyph.Builder(3/4f, 3/4f)
+                .moveTo(1/4f, 1).lineTo(1/4f, -1)
+                .lineTo(-3/4f, 1/3f).lineTo(3/4f, 1/3f));
+
+        set.put('5', new Glyph.Builder(3/4f, 3/4f)
+                .moveTo(3/4f, -1).lineTo(-3/4f, -1).lineTo(-3/4f, 0).lineTo(0, 0)
+                .arcTo(-3/4f, 0, 3/4f, 1, 270, 270));
+
+        set.put('6', new Glyph.Builder(3/4f, 3/4f)
+                .moveTo(1/2f, -1).lineTo(-3/4f, 1/2f)
+                .arcTo(-3/4f, 0, 3/4f, 1, 180, 360));
+
+        set.put('7', new Glyph.Builder(3/4f, 3/4f)
+                .moveTo(-3/4f, -1).lineTo(3/4f, -1).lineTo(-1/4f, 1));
+
+        set.put('8', new Glyph.Builder(3/4f, 3/4f)
+                .addArc(-1/2f, -1, 1/2f, 0, 90, 360)
+                .addArc(-3/4f, 0, 3/4f, 1, 270, 360));
+
+        set.put('9', new Glyph.Builder(3/4f, 3/4f)
+                .addArc(-3/4f, -1, 3/4f, 0, 0, -360)
+                .lineTo(-1/2f, 1));
+
+        return set.build();
+    }
+
+    private static GlyphSet punctuation(){
+
+        GlyphSet.Builder set = new GlyphSet.Builder();
+
+        set.put('.', new Glyph.Builder(0, 0)
+                .moveTo(0, 15/16f).lineTo(0, 1));
+
+        set.put(',', new Glyph.Builder(1/8f, 0)
+                .moveTo(0, 7/8f).lineTo(-1/8f, 5/4f));
+
+        set.put(':', new Glyph.Builder(0, 0)
+                .moveTo(0, 1/4f).lineTo(0, 5/16f)
+                .moveTo(0, 15/16f).lineTo(0, 1));
+
+        set.put(';', new Glyph.Builder(1/8f, 0)
+                .moveTo(0, 1/4f).lineTo(0, 5/16f)
+                .moveTo(0, 7/8f).lineTo(-1/8f, 5/4f));
+
+        set.put('!', new Glyph.Builder(0, 0)
+                .moveTo(0, -1).lineTo(0, 1/2f)
+                .moveTo(0, 15/16f).lineTo(0, 1));
+
+        set.put('?', new Glyph.Builder(1/2f, 1/2f)
+                .addArc(-1/2f, -1, 1/2f, 0, 180, 270).lineTo(0, 1/2f)
+                .moveTo(0, 15/16f).lineTo(0, 1));
+
+        set.put('\'', new Glyph.Builder(0, 0)
+                .moveTo(0, -1).lineTo(0, -1/2f));
+
+        set.put('"', new Glyph.Builder(1/4f, 1/4f)
+                .moveTo(-1/4f, -1).lineTo(-1/4f, -1/2f)
+                .moveTo(1/4f, -1).lineTo(1/4f, -1/2f));
+
+        set.put('-', new Glyph.Builder(1/2f, 1/2f)
+                .moveTo(-1/2f, 0).lineTo(1/2f, 0));
+
+        set.put('(', new Glyph.Builder(1/4f, 1/4f)
+                .addArc(-1/4f, -1, 7/4f, 1, 240, -120));
+
+        set.put(')', new Glyph.Builder(1/4f, 1/4f)
+                .addArc(-7/4f, -1, 1/4f, 1, -60, 120));
+
+        set.put('/', new Glyph.Builder(1/2f, 1/2f)
+                .moveTo(1/2f, -1).lineTo(-1/2f, 1));
+
+        return set.build();
+    }
+}
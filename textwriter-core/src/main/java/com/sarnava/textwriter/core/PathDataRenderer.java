@@ -0,0 +1,131 @@
+
+/*
+ *
+ * MIT License
+ *
+ * Copyright (c) 2020 Sarnava Konar
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.sarnava.textwriter.core;
+
+/**
+ * Writes the strokes as SVG path data, which is also the path data of an Android vector
+ * drawable. Numbers are rounded to two decimals
+ */
+public final class PathDataRenderer implements StrokeRenderer {
+
+    private final StringBuilder pathData;
+
+    /**
+     * @param pathData receives the path data, it is appended to
+     */
+    public PathDataRenderer(StringBuilder pathData) {
+
+        this.pathData = pathData;
+    }
+
+    @Override
+    public void moveTo(float x, float y) {
+
+        command('M');
+        point(x, y);
+    }
+
+    @Override
+    public void lineTo(float x, float y) {
+
+        command('L');
+        point(x, y);
+    }
+
+    /**
+     * The arc is expected to start where the stroke is, which holds for every arc of a
+     * {@link StrokeTimeline}. Arcs of more than 180 degrees are written as two
+     */
+    @Override
+    public void arcTo(float left, float top, float right, float bottom, float startAngle, float sweepAngle) {
+
+        if(Math.abs(sweepAngle) > 180) {
+
+            arcTo(left, top, right, bottom, startAngle, sweepAngle/2);
+            arcTo(left, top, right, bottom, startAngle + sweepAngle/2, sweepAngle/2);
+            return;
+        }
+
+        double end = Math.toRadians(startAngle + sweepAngle);
+        float radiusX = (right - left)/2, radiusY = (bottom - top)/2;
+
+        //the angles grow clockwise on the screen, which is the positive sweep of SVG too
+        command('A');
+        number(radiusX);
+        pathData.append(' ');
+        number(radiusY);
+        pathData.append(" 0 0 ").append(sweepAngle > 0 ? '1' : '0').append(' ');
+        point((float) ((left + right)/2 + radiusX * Math.cos(end)), (float) ((top + bottom)/2 + radiusY * Math.sin(end)));
+    }
+
+    private void command(char command){
+
+        if(pathData.length() > 0)
+            pathData.append(' ');
+        pathData.append(command);
+    }
+
+    private void point(float x, float y){
+
+        number(x);
+        pathData.append(' ');
+        number(y);
+    }
+
+    private void number(float value){
+
+        appendNumber(pathData, value);
+    }
+
+    /**
+     * Appends the value rounded to two decimals without any trailing zero
+     */
+    static void appendNumber(StringBuilder out, float value){
+
+        long scaled = Math.round(value * 100.0);
+
+        if(scaled < 0) {
+
+            out.append('-');
+            scaled = -scaled;
+        }
+
+        out.append(scaled / 100);
+
+        long fraction = scaled % 100;
+        if(fraction == 0)
+            return;
+
+        out.append('.');
+        if(fraction < 10)
+            out.append('0').append(fraction);
+        else if(fraction % 10 == 0)
+            out.append(fraction / 10);
+        else
+            out.append(fraction);
+    }
+}
@@ -0,0 +1,44 @@
+
+/*
+ *
+ * MIT License
+ *
+ * Copyright (c) 2020 Sarnava Konar
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.sarnava.textwriter.core;
+
+/**
+ * The pen every stroke is drawn with, the same for the view, the exporter and the vector
+ * documents. Its round tip rounds the ends and the corners of every stroke, so a stroke looks
+ * the same whatever it is drawn by
+ */
+public final class Pen {
+
+    public static final int DEFAULT_COLOR = 0xFF000000;
+    public static final float DEFAULT_WIDTH = 10;
+
+    //the shape of the ends and of the corners of a stroke, named the way SVG and vector
+    //drawables name them
+    public static final String CAP = "round";
+    public static final String JOIN = "round";
+
+    private Pen() {}
+}
@@ -0,0 +1,202 @@
+
+/*
+ *
+ * MIT License
+ *
+ * Copyright (c) 2020 Sarnava Konar
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.sarnava.textwriter.core;
+
+/**
+ * How the letters of a text share the time it takes to write it. Letters can be written one
+ * after the other, or several at once with each of them starting a bit after the one before,
+ * with the words written side by side, or all of them together. Every letter gets a window of
+ * the whole writing time, so a single clock drives all of them
+ */
+public final class Stagger {
+
+    public enum Mode{
+
+        //one letter after the other, the way a hand writes
+        SEQUENTIAL,
+
+        //every letter starts a fixed part of its own time after the one before
+        LETTER,
+
+        //all the words at once, the letters of a word one after the other
+        WORD,
+
+        //all the letters at once
+        ALL_AT_ONCE
+    }
+
+    public static final Stagger SEQUENTIAL = new Stagger(Mode.SEQUENTIAL, 1);
+    public static final Stagger WORD = new Stagger(Mode.WORD, 0);
+    public static final Stagger ALL_AT_ONCE = new Stagger(Mode.ALL_AT_ONCE, 0);
+
+    private final Mode mode;
+    private final float offset;
+
+    private Stagger(Mode mode, float offset) {
+
+        this.mode = mode;
+        this.offset = offset;
+    }
+
+    /**
+     * @param offset the time after which the next letter starts, as a part of the time a letter
+     * takes. 0 starts all the letters together and 1 starts a letter once the one before is done
+     */
+    public static Stagger letters(float offset){
+
+        return new Stagger(Mode.LETTER, Math.max(0, Math.min(1, offset)));
+    }
+
+    public Mode getMode(){
+
+        return mode;
+    }
+
+    public float getOffset(){
+
+        return offset;
+    }
+
+    /**
+     * Writes the window of every glyph of the timeline to {@param starts} and {@param ends}, as
+     * parts of the whole writing time from 0 to 1. A glyph without any segment, like a space,
+     * gets an empty window at 0. Letters of a word are the glyphs b/w two glyphs without segments
+     *
+     * @return the length that takes as long to write one after the other as the whole text takes
+     * with this stagger, for pacing the writing the same way in every mode
+     */
+    public float plan(StrokeTimeline timeline, float[] starts, float[] ends){
+
+        int glyphCount = timeline.getGlyphCount();
+        float totalLength = timeline.getLength();
+
+        if(totalLength <= 0 || mode == Mode.SEQUENTIAL) {
+
+            for(int g=0; g<glyphCount; g++){
+
+                starts[g] = totalLength > 0 ? glyphStart(timeline, g) / totalLength : 0;
+                ends[g] = totalLength > 0 ? glyphEnd(timeline, g) / totalLength : 0;
+            }
+            return totalLength;
+        }
+
+        if(mode == Mode.ALL_AT_ONCE) {
+
+            float longest = 0;
+            for(int g=0; g<glyphCount; g++){
+
+                boolean empty = isEmpty(timeline, g);
+                starts[g] = 0;
+                ends[g] = empty ? 0 : 1;
+                longest = Math.max(longest, glyphLength(timeline, g));
+            }
+            return longest;
+        }
+
+        if(mode == Mode.WORD) {
+
+            float longest = 0;
+            for(int g=0; g<glyphCount; ){
+
+                if(isEmpty(timeline, g)) {
+
+                    starts[g] = ends[g] = 0;
+                    g++;
+                    continue;
+                }
+
+                //the letters of the word share the whole time by their lengths
+                int wordEnd = g;
+                while(wordEnd < glyphCount && !isEmpty(timeline, wordEnd))
+                    wordEnd++;
+
+                float wordStart = glyphStart(timeline, g);
+                float wordLength = glyphEnd(timeline, wordEnd - 1) - wordStart;
+                for(int i=g; i<wordEnd; i++){
+
+                    starts[i] = (glyphStart(timeline, i) - wordStart) / wordLength;
+                    ends[i] = (glyphEnd(timeline, i) - wordStart) / wordLength;
+                }
+
+                longest = Math.max(longest, wordLength);
+                g = wordEnd;
+            }
+            return longest;
+        }
+
+        //every letter takes the same time, the last one ends at 1
+        int letters = 0;
+        float longest = 0;
+        for(int g=0; g<glyphCount; g++){
+
+            if(!isEmpty(timeline, g)) {
+
+                letters++;
+                longest = Math.max(longest, glyphLength(timeline, g));
+            }
+        }
+
+        float letterTime = 1 / ((letters - 1) * offset + 1);
+        int letter = 0;
+        for(int g=0; g<glyphCount; g++){
+
+            if(isEmpty(timeline, g)) {
+
+                starts[g] = ends[g] = 0;
+                continue;
+            }
+
+            starts[g] = letter * offset * letterTime;
+            ends[g] = Math.min(1, starts[g] + letterTime);
+            letter++;
+        }
+
+        //the longest letter is written at the pace of writing one letter after the other
+        return longest / letterTime;
+    }
+
+    private static boolean isEmpty(StrokeTimeline timeline, int glyph){
+
+        return timeline.getGlyphStart(glyph) == timeline.getGlyphEnd(glyph);
+    }
+
+    private static float glyphStart(StrokeTimeline timeline, int glyph){
+
+        return timeline.getStart(timeline.getGlyphStart(glyph));
+    }
+
+    private static float glyphEnd(StrokeTimeline timeline, int glyph){
+
+        int end = timeline.getGlyphEnd(glyph);
+        return end == 0 ? 0 : timeline.getEnd(end - 1);
+    }
+
+    private static float glyphLength(StrokeTimeline timeline, int glyph){
+
+        return isEmpty(timeline, glyph) ? 0 : glyphEnd(timeline, glyph) - glyphStart(timeline, glyph);
+    }
+}
@@ -0,0 +1,407 @@
+
+/*
+ *
+ * MIT License
+ *
+ * Copyright (c) 2020 Sarnava Konar
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.sarnava.textwriter.core;
+
+import java.util.Arrays;
+
+/**
+ * Plays the writing of a {@link StrokeTimeline} at any point in time, in either direction, for
+ * every {@link Stagger}. Every letter gets a window of the writing time, the letters are kept
+ * sorted by where their windows start and end, so a frame only visits the letters being written
+ * and the ones that start or end since the last frame. Letters written completely are handed out
+ * once so they can be cached, only the letters in progress are drawn every frame
+ */
+public final class StrokePlayer {
+
+    //the number of halvings of the writing time when looking for an eased time, enough for a
+    //precision far below a frame
+    private static final int SEARCH_STEPS = 24;
+
+    private Stagger stagger = Stagger.SEQUENTIAL;
+    private Easing easing = Easing.LINEAR, strokeEasing = Easing.LINEAR;
+    private StrokeTimeline timeline;
+    private float pacedLength;
+
+    //the window of every glyph within the eased writing time
+    private float[] starts = new float[0], ends = new float[0];
+
+    //the glyphs sorted by the start and by the end of their windows, the ones that are started
+    //and the ones that are complete at the time are always at the front
+    private int[] startOrder = new int[0], endOrder = new int[0];
+    private long[] sortKeys = new long[0];
+    private int glyphCount, started, completed;
+
+    //the glyphs in progress in no particular order, with the position of every glyph in the
+    //array or -1 if it isn't in progress
+    private int[] open = new int[0], openPositions = new int[0];
+    private int openCount, openSegments;
+
+    //the eased time of the last reveal
+    private float time;
+
+    /**
+     * @param stagger {@link Stagger}, used from the next {@link #start(StrokeTimeline)}
+     */
+    public StrokePlayer setStagger(Stagger stagger){
+
+        this.stagger = stagger;
+        return this;
+    }
+
+    /**
+     * @param easing {@link Easing} of the whole writing time
+     */
+    public StrokePlayer setEasing(Easing easing){
+
+        this.easing = easing;
+        return this;
+    }
+
+    /**
+     * @param easing {@link Easing} of the pen along every stroke
+     */
+    public StrokePlayer setStrokeEasing(Easing easing){
+
+        this.strokeEasing = easing;
+        return this;
+    }
+
+    /**
+     * Plans the windows of the letters of the timeline and starts over with nothing written
+     */
+    public void start(StrokeTimeline timeline){
+
+        this.timeline = timeline;
+        plan();
+        sort(starts, startOrder);
+        sort(ends, endOrder);
+        reset();
+    }
+
+    /**
+     * Plans the windows again once letters are appended to the timeline. The eased time is
+     * scaled by the change of the paced length, the same way as a duration stretched along with
+     * it, so the text written so far stays as long whatever the easing. The player continues at
+     * the returned time without drawing anything, the letters complete at it are found with
+     * {@link #getCompletedGlyph(int)}. They are the ones complete before and the appended ones
+     * that end before it, unless the stagger moves the windows of the letters written so far.
+     * An appended letter planned to start before the time, like every letter written all at
+     * once, is written in the time left instead of appearing partly written
+     *
+     * @return the part of the stretched writing time to continue from
+     */
+    public float replan(){
+
+        float eased = time, pacedLength = this.pacedLength;
+        int planned = glyphCount;
+        plan();
+
+        float target = this.pacedLength <= 0 ? 1 : eased * pacedLength / this.pacedLength;
+
+        //the window is squeezed into the time left, in proportion to where it was planned
+        for(int glyph=planned; glyph<glyphCount && target < 1; glyph++){
+
+            if(starts[glyph] < target) {
+
+                starts[glyph] = target + starts[glyph] * (1 - target);
+                ends[glyph] = target + ends[glyph] * (1 - target);
+            }
+        }
+        sort(starts, startOrder);
+        sort(ends, endOrder);
+        reset();
+
+        float time = getTime(target);
+        this.time = ease(time);
+        advance(this.time, null);
+        return time;
+    }
+
+    /**
+     * @param eased a part of the eased writing time, like the start or the end of a window
+     * @return the part of the writing time at which the easing reaches it
+     */
+    public float getTime(float eased){
+
+        if(eased <= 0 || eased >= 1 || easing == Easing.LINEAR)
+            return Math.max(0, Math.min(1, eased));
+
+        //the easing never goes back, so the time it reaches the eased time at is found by halving
+        float low = 0, high = 1;
+        for(int i=0; i<SEARCH_STEPS; i++){
+
+            float middle = (low + high) / 2;
+            if(ease(middle) < eased)
+                low = middle;
+            else
+                high = middle;
+        }
+        return high;
+    }
+
+    /**
+     * @return where the window of the glyph planned by the last start begins, as a part of the
+     * eased writing time
+     */
+    public float getWindowStart(int glyph){
+
+        return starts[glyph];
+    }
+
+    /**
+     * @return where the window of the glyph planned by the last start ends, as a part of the
+     * eased writing time
+     */
+    public float getWindowEnd(int glyph){
+
+        return ends[glyph];
+    }
+
+    /**
+     * @return the length that takes as long to write one letter after the other as the text
+     * takes with the stagger, for pacing the writing the same way in every mode
+     */
+    public float getPacedLength(){
+
+        return pacedLength;
+    }
+
+    /**
+     * Shows the text the way it is written at the point in time. Letters completed since the
+     * last call are drawn to {@param completed}, which keeps them, and every letter in progress to
+     * {@param current}, which is expected to be cleared before every call
+     *
+     * @param time the part of the writing time elapsed, from 0 to 1
+     * @return false if letters drawn to {@param completed} before aren't complete anymore, since
+     * the time went back. They are the letters from {@link #getCompletedCount()} up to the count
+     * before the call, in the order of {@link #getCompletedGlyph(int)}. The letters around them
+     * can be drawn again with {@link #drawCompleted(float, float, float, float, StrokeRenderer)}
+     */
+    public boolean reveal(float time, StrokeRenderer completed, StrokeRenderer current){
+
+        float eased = ease(time);
+        boolean kept = eased >= this.time || !uncompletes(eased);
+
+        if(eased >= this.time)
+            advance(eased, completed);
+        else
+            rewind(eased);
+        this.time = eased;
+
+        openSegments = 0;
+        for(int i=0; i<openCount; i++){
+
+            int glyph = open[i];
+            timeline.drawGlyph(glyph, (eased - starts[glyph]) / (ends[glyph] - starts[glyph]), strokeEasing, current);
+            openSegments += timeline.getGlyphEnd(glyph) - timeline.getGlyphStart(glyph);
+        }
+        return kept;
+    }
+
+    /**
+     * Draws every letter that is complete at the time of the last reveal
+     */
+    public void drawCompleted(StrokeRenderer renderer){
+
+        for(int i=0; i<completed; i++){
+
+            int glyph = endOrder[i];
+            timeline.drawRange(timeline.getGlyphStart(glyph), timeline.getGlyphEnd(glyph), renderer);
+        }
+    }
+
+    /**
+     * Draws every letter that is complete at the time of the last reveal and reaches into the
+     * rectangle, for drawing a part of the completed letters again
+     */
+    public void drawCompleted(float left, float top, float right, float bottom, StrokeRenderer renderer){
+
+        for(int i=0; i<completed; i++){
+
+            int glyph = endOrder[i];
+            if(timeline.intersects(glyph, left, top, right, bottom))
+                timeline.drawRange(timeline.getGlyphStart(glyph), timeline.getGlyphEnd(glyph), renderer);
+        }
+    }
+
+    /**
+     * @return the number of letters complete at the time of the last reveal
+     */
+    public int getCompletedCount(){
+
+        return completed;
+    }
+
+    /**
+     * @return the letter at the position in the order the letters complete in, the ones before
+     * {@link #getCompletedCount()} are complete
+     */
+    public int getCompletedGlyph(int index){
+
+        return endOrder[index];
+    }
+
+    /**
+     * @return whether every letter is complete at the time of the last reveal
+     */
+    public boolean isWritten(){
+
+        return completed == glyphCount;
+    }
+
+    /**
+     * @return the number of segments of the letters in progress at the time of the last reveal,
+     * which are the only ones drawn every frame
+     */
+    public int getOpenSegments(){
+
+        return openSegments;
+    }
+
+    /**
+     * @return the eased time, exactly 1 at the end so the last letter is always completed
+     */
+    private float ease(float time){
+
+        return time >= 1 ? 1 : Math.max(0, Math.min(1, easing.getInterpolation(time)));
+    }
+
+    private void plan(){
+
+        glyphCount = timeline.getGlyphCount();
+        if(starts.length < glyphCount) {
+
+            int capacity = Math.max(glyphCount, 2*starts.length);
+            starts = new float[capacity];
+            ends = new float[capacity];
+            startOrder = new int[capacity];
+            endOrder = new int[capacity];
+            sortKeys = new long[capacity];
+            open = new int[capacity];
+            openPositions = new int[capacity];
+        }
+
+        pacedLength = stagger.plan(timeline, starts, ends);
+    }
+
+    private void reset(){
+
+        started = completed = openCount = 0;
+        Arrays.fill(openPositions, 0, glyphCount, -1);
+        time = 0;
+    }
+
+    /**
+     * Sorts the glyphs by their times, which are never negative so their bits sort the same way
+     */
+    private void sort(float[] times, int[] order){
+
+        for(int glyph=0; glyph<glyphCount; glyph++)
+            sortKeys[glyph] = (long) Float.floatToIntBits(times[glyph]) << 32 | glyph;
+
+        Arrays.sort(sortKeys, 0, glyphCount);
+
+        for(int i=0; i<glyphCount; i++)
+            order[i] = (int) sortKeys[i];
+    }
+
+    private boolean isComplete(int glyph, float time){
+
+        return time >= 1 || ends[glyph] <= time;
+    }
+
+    /**
+     * Starts and completes the letters up to the later time, the completed letters are drawn
+     * to {@param renderer} unless it is null
+     */
+    private void advance(float time, StrokeRenderer renderer){
+
+        while(started < glyphCount && starts[startOrder[started]] < time){
+
+            int glyph = startOrder[started++];
+            if(!isComplete(glyph, time))
+                addOpen(glyph);
+        }
+
+        while(completed < glyphCount && isComplete(endOrder[completed], time)){
+
+            int glyph = endOrder[completed++];
+            removeOpen(glyph);
+            if(renderer != null)
+                timeline.drawRange(timeline.getGlyphStart(glyph), timeline.getGlyphEnd(glyph), renderer);
+        }
+    }
+
+    /**
+     * @return whether a letter with segments that is complete now isn't at the earlier time
+     */
+    private boolean uncompletes(float time){
+
+        for(int i=completed-1; i>=0 && !isComplete(endOrder[i], time); i--){
+
+            int glyph = endOrder[i];
+            if(timeline.getGlyphStart(glyph) < timeline.getGlyphEnd(glyph))
+                return true;
+        }
+        return false;
+    }
+
+    /**
+     * Takes back the letters that aren't complete or started anymore at the earlier time
+     */
+    private void rewind(float time){
+
+        while(completed > 0 && !isComplete(endOrder[completed - 1], time)){
+
+            int glyph = endOrder[--completed];
+            if(starts[glyph] < time)
+                addOpen(glyph);
+        }
+
+        while(started > 0 && starts[startOrder[started - 1]] >= time)
+            removeOpen(startOrder[--started]);
+    }
+
+    private void addOpen(int glyph){
+
+        openPositions[glyph] = openCount;
+        open[openCount++] = glyph;
+    }
+
+    private void removeOpen(int glyph){
+
+        int position = openPositions[glyph];
+        if(position < 0)
+            return;
+
+        //the last glyph in progress takes the place of the removed one
+        int last = open[--openCount];
+        open[position] = last;
+        openPositions[last] = position;
+        openPositions[glyph] = -1;
+    }
+}
@@ -0,0 +1,376 @@
+
+/*
+ *
+ * MIT License
+ *
+ * Copyright (c) 2020 Sarnava Konar
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.sarnava.textwriter.core;
+
+import java.util.Arrays;
+
+/**
+ * All the segments of a text, placed on the canvas and laid out one after the other in the order
+ * they are written. The animation only has to find the segment at a given drawn length, every
+ * coordinate and length is computed once when the text is added
+ */
+public final class StrokeTimeline {
+
+    private float[] segments = new float[64 * Glyph.STRIDE];
+    private float[] ends = new float[64];
+    private int[] glyphEnds = new int[16];
+
+    //the box around the segments of every glyph, as left, top, right and bottom
+    private float[] glyphBounds = new float[16 * 4];
+    private int count, glyphCount;
+
+    public void clear(){
+
+        count = 0;
+        glyphCount = 0;
+    }
+
+    /**
+     * Replaces the content with a copy of {@param other}
+     */
+    public void set(StrokeTimeline other){
+
+        clear();
+        ensureCapacity(other.count);
+        System.arraycopy(other.segments, 0, segments, 0, other.count * Glyph.STRIDE);
+        System.arraycopy(other.ends, 0, ends, 0, other.count);
+        count = other.count;
+
+        if(other.glyphCount > glyphEnds.length) {
+
+            glyphEnds = Arrays.copyOf(glyphEnds, other.glyphCount);
+            glyphBounds = Arrays.copyOf(glyphBounds, other.glyphCount * 4);
+        }
+        System.arraycopy(other.glyphEnds, 0, glyphEnds, 0, other.glyphCount);
+        System.arraycopy(other.glyphBounds, 0, glyphBounds, 0, other.glyphCount * 4);
+        glyphCount = other.glyphCount;
+    }
+
+    /**
+     * Appends all the segments of a scaled {@link Glyph} with its centre at ({@param centreX},
+     * {@param centreY})
+     */
+    public void add(Glyph glyph, float centreX, float centreY){
+
+        int segmentCount = glyph.getSegmentCount();
+        ensureCapacity(count + segmentCount);
+
+        glyph.copySegments(segments, count * Glyph.STRIDE, 1, 1, centreX, centreY);
+
+        if(glyphCount == glyphEnds.length) {
+
+            glyphEnds = Arrays.copyOf(glyphEnds, glyphCount * 2);
+            glyphBounds = Arrays.copyOf(glyphBounds, glyphCount * 2 * 4);
+        }
+
+        float end = getLength();
+        float left = centreX, top = centreY, right = centreX, bottom = centreY;
+        for(int i=0; i<segmentCount; i++){
+
+            end += glyph.getSegmentLength(i);
+            ends[count + i] = end;
+
+            //an arc counts with its whole oval
+            int o = (count + i) * Glyph.STRIDE;
+            int last = segments[o] == Glyph.LINE ? o+5 : o+7;
+            for(int x=o+2; x<last; x+=2){
+
+                left = Math.min(left, segments[x]);
+                right = Math.max(right, segments[x]);
+                top = Math.min(top, segments[x+1]);
+                bottom = Math.max(bottom, segments[x+1]);
+            }
+        }
+        count += segmentCount;
+
+        int b = glyphCount * 4;
+        glyphBounds[b] = left;
+        glyphBounds[b+1] = top;
+        glyphBounds[b+2] = right;
+        glyphBounds[b+3] = bottom;
+        glyphEnds[glyphCount++] = count;
+    }
+
+    public int getSegmentCount(){
+
+        return count;
+    }
+
+    /**
+     * @return the number of glyphs added, including the ones without any segment like a space
+     */
+    public int getGlyphCount(){
+
+        return glyphCount;
+    }
+
+    /**
+     * @return the index of the first segment of the glyph
+     */
+    public int getGlyphStart(int glyph){
+
+        return glyph == 0 ? 0 : glyphEnds[glyph - 1];
+    }
+
+    /**
+     * @return the index after the last segment of the glyph, the glyph is completely written once
+     * this many segments are
+     */
+    public int getGlyphEnd(int glyph){
+
+        return glyphEnds[glyph];
+    }
+
+    /**
+     * @return whether any segment of the glyph may reach into the rectangle, tested against the
+     * box around its segments
+     */
+    public boolean intersects(int glyph, float left, float top, float right, float bottom){
+
+        int b = glyph * 4;
+        return glyphBounds[b] <= right && glyphBounds[b+2] >= left
+                && glyphBounds[b+1] <= bottom && glyphBounds[b+3] >= top;
+    }
+
+    /**
+     * Writes the box around the segments of the glyph to {@param bounds}, as left, top, right and
+     * bottom. An arc counts with its whole oval
+     */
+    public void getBounds(int glyph, float[] bounds){
+
+        System.arraycopy(glyphBounds, glyph * 4, bounds, 0, 4);
+    }
+
+    /**
+     * @return the total length of all the segments
+     */
+    public float getLength(){
+
+        return count == 0 ? 0 : ends[count - 1];
+    }
+
+    /**
+     * @return the drawn length at which the segment starts
+     */
+    public float getStart(int index){
+
+        return index == 0 ? 0 : ends[index - 1];
+    }
+
+    /**
+     * @return the drawn length at which the segment is complete
+     */
+    public float getEnd(int index){
+
+        return ends[index];
+    }
+
+    /**
+     * @return whether the segment starts a new stroke instead of continuing the one before
+     */
+    public boolean startsStroke(int index){
+
+        return index == 0 || segments[index * Glyph.STRIDE + 1] != 0;
+    }
+
+    /**
+     * @return the number of segments that are complete at the drawn length, found by a binary
+     * search over their ends
+     */
+    public int getSegmentsAt(float drawnLength){
+
+        return upperBound(ends, count, drawnLength);
+    }
+
+    /**
+     * @return the number of glyphs that are complete once the first {@param segments} segments
+     * are, found by a binary search over their ends
+     */
+    public int getGlyphsAt(int segments){
+
+        return upperBound(glyphEnds, glyphCount, segments);
+    }
+
+    /**
+     * Eases the drawn length within the stroke it falls in. Every stroke is still done at the
+     * same drawn length, only the pen changes its speed along the stroke
+     *
+     * @return the eased drawn length
+     */
+    public float easeStroke(float drawnLength, Easing easing){
+
+        if(easing == Easing.LINEAR || count == 0 || drawnLength <= 0 || drawnLength >= ends[count - 1])
+            return drawnLength;
+
+        //the stroke is the run of segments around the current one that continue each other
+        int current = upperBound(ends, count, drawnLength);
+        int first = current, last = current + 1;
+
+        while(!startsStroke(first))
+            first--;
+        while(last < count && !startsStroke(last))
+            last++;
+
+        float start = getStart(first);
+        float length = ends[last - 1] - start;
+        if(length <= 0)
+            return drawnLength;
+
+        return start + length * easing.getInterpolation((drawnLength - start) / length);
+    }
+
+    /**
+     * Reveals the text up to the drawn length. Every segment completed since the last call is
+     * drawn to {@param written}, which keeps the finished strokes, and the drawn part of the
+     * current segment to {@param current}, which is expected to be cleared before every call
+     *
+     * @param writtenSegments the number of segments already drawn to {@param written}
+     * @return the number of segments drawn to {@param written}, equal to
+     * {@link #getSegmentCount()} once the whole text is written
+     */
+    public int reveal(int writtenSegments, float drawnLength, StrokeRenderer written, StrokeRenderer current){
+
+        while(writtenSegments < count && ends[writtenSegments] <= drawnLength){
+
+            draw(writtenSegments, 1, false, written);
+            writtenSegments++;
+        }
+
+        if(writtenSegments < count){
+
+            float start = getStart(writtenSegments);
+            float fraction = (drawnLength - start) / (ends[writtenSegments] - start);
+
+            if(fraction > 0)
+                draw(writtenSegments, fraction, true, current);
+        }
+        return writtenSegments;
+    }
+
+    /**
+     * Draws the first {@param fraction} of the length of the glyph, as a continuation of nothing
+     * drawn before. The drawn length is eased within its stroke by {@param strokeEasing}
+     */
+    public void drawGlyph(int glyph, float fraction, Easing strokeEasing, StrokeRenderer renderer){
+
+        int from = getGlyphStart(glyph), to = glyphEnds[glyph];
+        if(from == to)
+            return;
+
+        float start = getStart(from);
+        float drawnLength = easeStroke(start + (ends[to - 1] - start) * fraction, strokeEasing);
+
+        for(int i=from; i<to; i++){
+
+            if(ends[i] <= drawnLength) {
+
+                draw(i, 1, i == from, renderer);
+                continue;
+            }
+
+            float segmentStart = getStart(i);
+            float segmentFraction = (drawnLength - segmentStart) / (ends[i] - segmentStart);
+            if(segmentFraction > 0)
+                draw(i, segmentFraction, i == from, renderer);
+            break;
+        }
+    }
+
+    /**
+     * Draws the segments from {@param from} up to but excluding {@param to} completely, as a
+     * continuation of nothing drawn before
+     */
+    public void drawRange(int from, int to, StrokeRenderer renderer){
+
+        for(int i=from; i<to; i++)
+            draw(i, 1, i == from, renderer);
+    }
+
+    /**
+     * Draws the first {@param fraction} of the segment. The segment continues the stroke drawn
+     * before it unless it starts a new stroke or {@param forceMoveTo} is set
+     */
+    public void draw(int index, float fraction, boolean forceMoveTo, StrokeRenderer renderer){
+
+        int o = index * Glyph.STRIDE;
+
+        if(forceMoveTo || segments[o+1] != 0)
+            renderer.moveTo(segments[o+2], segments[o+3]);
+
+        if(segments[o] == Glyph.LINE) {
+
+            float startX = segments[o+2], startY = segments[o+3];
+            renderer.lineTo(startX + (segments[o+4] - startX) * fraction,
+                    startY + (segments[o+5] - startY) * fraction);
+        }
+        else
+            renderer.arcTo(segments[o+4], segments[o+5], segments[o+6], segments[o+7],
+                    segments[o+8], segments[o+9] * fraction);
+    }
+
+    /**
+     * @return the number of the first {@param size} values that are not greater than {@param key},
+     * the values being sorted
+     */
+    private static int upperBound(float[] values, int size, float key){
+
+        int low = 0, high = size;
+        while(low < high){
+
+            int mid = (low + high) >>> 1;
+            if(values[mid] <= key)
+                low = mid + 1;
+            else
+                high = mid;
+        }
+        return low;
+    }
+
+    private static int upperBound(int[] values, int size, int key){
+
+        int low = 0, high = size;
+        while(low < high){
+
+            int mid = (low + high) >>> 1;
+            if(values[mid] <= key)
+                low = mid + 1;
+            else
+                high = mid;
+        }
+        return low;
+    }
+
+    private void ensureCapacity(int capacity){
+
+        if(capacity > ends.length) {
+
+            int newCapacity = Math.max(capacity, ends.length * 2);
+            ends = Arrays.copyOf(ends, newCapacity);
+            segments = Arrays.copyOf(segments, newCapacity * Glyph.STRIDE);
+        }
+    }
+}
@@ -0,0 +1,544 @@
+
+/*
+ *
+ * MIT License
+ *
+ * Copyright (c) 2020 Sarnava Konar
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.sarnava.textwriter.core;
+
+import java.util.Arrays;
+
+/**
+ * Places the letters of a text next to each other, with a gap between two successive letters,
+ * breaks it into lines that fit the available width and turns it into the {@link StrokeTimeline}
+ * that gets written
+ */
+public final class TextLayout {
+
+    /**
+     * The horizontal alignment of every line within the available width
+     */
+    public enum Alignment{
+
+        LEFT,
+        CENTER,
+        RIGHT
+    }
+
+    //the number of halvings of the size range when fitting a text, enough for a precision far
+    //below a pixel
+    private static final int FIT_STEPS = 24;
+
+    private final GlyphSource glyphs;
+    private final float verticalBound, gap, lineSpacing;
+    private final Alignment alignment;
+    private float inset;
+
+    //the lines of the last layout, as ranges of the text, their widths and how far their
+    //descenders reach below the vertical bound
+    private int[] lineStarts = new int[4], lineEnds = new int[4];
+    private float[] lineWidths = new float[4], lineDescents = new float[4];
+    private int lineCount, totalLineCount;
+
+    //where the last line ends, for the text appended to it
+    private boolean laidOut, endEmpty, endAfterLetter;
+    private float endX, endY, endSpacesX, endDescent;
+
+    /**
+     * @param horizontalBound half the width of a regular letter
+     * @param verticalBound half the height of a letter
+     * @param gap the distance b/w two successive letters
+     */
+    public TextLayout(float horizontalBound, float verticalBound, float gap) {
+
+        this(horizontalBound, verticalBound, gap, 0, Alignment.CENTER);
+    }
+
+    /**
+     * @param horizontalBound half the width of a regular letter
+     * @param verticalBound half the height of a letter
+     * @param gap the distance b/w two successive letters
+     * @param lineSpacing the distance b/w two successive lines
+     * @param alignment the alignment of the lines
+     */
+    public TextLayout(float horizontalBound, float verticalBound, float gap, float lineSpacing, Alignment alignment) {
+
+        this(GlyphRegistry.getDefault(), horizontalBound, verticalBound, gap, lineSpacing, alignment);
+    }
+
+    /**
+     * @param registry the letters that can be drawn
+     * @param horizontalBound half the width of a regular letter
+     * @param verticalBound half the height of a letter
+     * @param gap the distance b/w two successive letters
+     * @param lineSpacing the distance b/w two successive lines
+     * @param alignment the alignment of the lines
+     */
+    public TextLayout(GlyphRegistry registry, float horizontalBound, float verticalBound, float gap, float lineSpacing, Alignment alignment) {
+
+        this(GlyphCache.get(registry, horizontalBound, verticalBound), verticalBound, gap, lineSpacing, alignment);
+    }
+
+    /**
+     * @param glyphs the letters that can be drawn, already scaled
+     * @param verticalBound half the height of a letter
+     * @param gap the distance b/w two successive letters
+     * @param lineSpacing the distance b/w two successive lines
+     * @param alignment the alignment of the lines
+     */
+    public TextLayout(GlyphSource glyphs, float verticalBound, float gap, float lineSpacing, Alignment alignment) {
+
+        this.glyphs = glyphs;
+        this.verticalBound = verticalBound;
+        this.gap = gap;
+        this.lineSpacing = lineSpacing;
+        this.alignment = alignment;
+    }
+
+    /**
+     * @param inset the distance the text keeps from every edge of the canvas, half the width of
+     * the stroke keeps the strokes of the outermost letters from being cut off. 0 by default
+     */
+    public TextLayout setInset(float inset){
+
+        this.inset = inset;
+        return this;
+    }
+
+    /**
+     * @return the scaled {@link Glyph} of the code point or null if it can't be drawn
+     */
+    public Glyph getGlyph(int codePoint){
+
+        return glyphs.getGlyph(codePoint);
+    }
+
+    /**
+     * Checks that the text can be drawn and calculates the total width required to draw it on a
+     * single line
+     *
+     * @throws RuntimeException if the text is empty or doesn't follow the rules
+     */
+    public float measure(CharSequence text) throws RuntimeException {
+
+        validate(text, false);
+
+        float totalLetterWidth = 0;
+        int letters = 0, character;
+        for(int i=0; i<text.length(); i+=Character.charCount(character)){
+
+            character = Character.codePointAt(text, i);
+
+            if(character == '\n')
+                continue;
+
+            //adds the width required to draw the particular letter
+            totalLetterWidth += glyphs.getGlyph(character).getWidth();
+
+            //counts only the letters excluding whitespaces
+            if(character != ' ')
+                letters++;
+        }
+
+        //the total width required to draw the letters including gap b/w letters
+        return totalLetterWidth + gap*(letters - 1);
+    }
+
+    /**
+     * Breaks the text into lines like {@link #layout(CharSequence, float, float, StrokeTimeline)}
+     * does without laying it out
+     *
+     * @param maxWidth the width of the canvas
+     * @return the width of the widest line with the inset on both sides, which can be more than
+     * {@param maxWidth} for a word that doesn't fit a line at all
+     * @throws RuntimeException if the text is empty or doesn't follow the rules
+     */
+    public float measureWidth(CharSequence text, float maxWidth) throws RuntimeException {
+
+        validate(text, false);
+        breakLines(text, maxWidth - 2*inset, false, 1);
+        return getWidestLine() + 2*inset;
+    }
+
+    /**
+     * Breaks the text into lines like {@link #layout(CharSequence, float, float, StrokeTimeline)}
+     * does without laying it out
+     *
+     * @param maxWidth the width of the canvas
+     * @return the height of all the lines together, with their descenders and the inset above and
+     * below them
+     * @throws RuntimeException if the text is empty or doesn't follow the rules
+     */
+    public float measureHeight(CharSequence text, float maxWidth) throws RuntimeException {
+
+        validate(text, false);
+        breakLines(text, maxWidth - 2*inset, false, 1);
+        return getHeight(1) + 2*inset;
+    }
+
+    /**
+     * Finds the largest size at which the text laid out fits a canvas of the given size, by a
+     * binary search over the size. The letters are looked up at the size of this layout only,
+     * their widths and descenders grow along with the size while the gaps and the line spacing
+     * stay the same
+     *
+     * @return the factor to scale both bounds of the letters by, 0 if the text doesn't fit at any
+     * size since the gaps alone are too wide
+     * @throws RuntimeException if the text is empty or doesn't follow the rules
+     */
+    public float fit(CharSequence text, float width, float height) throws RuntimeException {
+
+        validate(text, false);
+
+        width -= 2*inset;
+        height -= 2*inset;
+
+        //the line with the lowest descender can't be taller than the canvas
+        float low = 0, high = Math.max(0, height) / (2*verticalBound + getDescent(text, 0, text.length()));
+
+        for(int i=0; i<FIT_STEPS; i++){
+
+            float scale = (low + high) / 2;
+            breakLines(text, width, false, scale);
+
+            if(getWidestLine() <= width && getHeight(scale) <= height)
+                low = scale;
+            else
+                high = scale;
+        }
+        return low;
+    }
+
+    /**
+     * Lays the text out at the centre of a canvas of the given size and replaces the content of
+     * {@param timeline} with its strokes. Lines are broken at the spaces so that they fit the width
+     * of the canvas, or at a '\n'
+     *
+     * @throws RuntimeException if the text is empty or doesn't follow the rules
+     */
+    public void layout(CharSequence text, float width, float height, StrokeTimeline timeline) throws RuntimeException {
+
+        validate(text, false);
+        breakLines(text, width - 2*inset, false, 1);
+
+        //the y-coordinate of the center of the canvas for drawing a letter of the first line, the
+        //lines together are centred vertically. A line is taller by the descenders of its letters
+        float lineHeight = 2*verticalBound + lineSpacing;
+        float centreY = (height - getHeight(1))/2 + verticalBound;
+
+        timeline.clear();
+        for(int line=0; line<lineCount; line++){
+
+            //the x-coordinate of the center of the canvas for drawing a letter, starting from the
+            //left edge of the line
+            float centreX;
+            if(alignment == Alignment.LEFT)
+                centreX = inset;
+            else if(alignment == Alignment.RIGHT)
+                centreX = width - inset - lineWidths[line];
+            else
+                centreX = (width - lineWidths[line])/2;
+
+            placeLine(text, line, centreX, centreY, true, timeline);
+            centreY += lineHeight + lineDescents[line];
+        }
+
+        totalLineCount = lineCount;
+        endDescent = lineDescents[lineCount - 1];
+        laidOut = true;
+    }
+
+    /**
+     * Lays out text that follows the text of the last layout and adds its strokes to
+     * {@param timeline}, the letters that are laid out already don't move. The appended text
+     * continues the last line, the lines it breaks into start at the left inset of the canvas one
+     * below the other. A word that continues the last line from an earlier append is broken
+     * before the letter that doesn't fit anymore
+     *
+     * @throws RuntimeException if nothing was laid out yet or the text doesn't follow the rules
+     */
+    public void append(CharSequence text, float width, StrokeTimeline timeline) throws RuntimeException {
+
+        if(!laidOut)
+            throw new RuntimeException("Nothing to append to");
+
+        validate(text, true);
+        breakLines(text, width - 2*inset, true, 1);
+
+        float lineHeight = 2*verticalBound + lineSpacing;
+        float centreY = endY, descent = Math.max(endDescent, lineDescents[0]);
+
+        placeLine(text, 0, endX, centreY, endEmpty, timeline);
+        for(int line=1; line<lineCount; line++){
+
+            centreY += lineHeight + descent;
+            descent = lineDescents[line];
+            placeLine(text, line, inset, centreY, true, timeline);
+        }
+
+        totalLineCount += lineCount - 1;
+        endDescent = descent;
+    }
+
+    /**
+     * @return how far down the canvas the last layout reaches, including the lines appended to it,
+     * their descenders and the inset below them
+     */
+    public float getBottom(){
+
+        return endY + verticalBound + endDescent + inset;
+    }
+
+    /**
+     * @return the number of lines of the last layout, including the lines appended to it
+     */
+    public int getLineCount(){
+
+        return totalLineCount;
+    }
+
+    /**
+     * Adds the strokes of a line to the timeline and remembers where it ends, so that appended
+     * text can continue it
+     *
+     * @param empty whether the line has nothing on it yet
+     */
+    private void placeLine(CharSequence text, int line, float centreX, float centreY, boolean empty, StrokeTimeline timeline){
+
+        boolean afterLetter = !empty && endAfterLetter;
+        float spacesX = empty ? -1 : endSpacesX;
+
+        for(int i=lineStarts[line], character; i<lineEnds[line]; i+=Character.charCount(character)){
+
+            character = Character.codePointAt(text, i);
+            Glyph glyph = glyphs.getGlyph(character);
+
+            //sets the centreX as the centre of the canvas for the next letter
+            if(!empty && character != ' ')
+                centreX += gap;
+
+            if(character == ' '){
+
+                if(afterLetter)
+                    spacesX = centreX;
+            }
+            else
+                spacesX = -1;
+
+            centreX += glyph.getLeft();
+
+            timeline.add(glyph, centreX, centreY);
+
+            //shifts the centreX to the end of the canvas(for that letter)
+            centreX += glyph.getRight();
+            empty = false;
+            afterLetter = character != ' ';
+        }
+
+        endX = centreX;
+        endY = centreY;
+        endEmpty = empty;
+        endAfterLetter = afterLetter;
+        endSpacesX = spacesX;
+    }
+
+    private void validate(CharSequence text, boolean appended) throws RuntimeException {
+
+        if(text == null || text.length() == 0)
+            throw new RuntimeException("Text is null or empty");
+
+        for(int i=0, character; i<text.length(); i+=Character.charCount(character)){
+
+            character = Character.codePointAt(text, i);
+
+            if(character == '\n')
+                continue;
+
+            //appended text is only a part of the whole text, it can start or end anywhere
+            if(!appended) {
+
+                if(i == 0 && Character.isSpaceChar(character))
+                    throw new RuntimeException("First character cannot be a whitespace");
+
+                if(i + Character.charCount(character) == text.length() && Character.isSpaceChar(character))
+                    throw new RuntimeException("Last character cannot be a whitespace");
+            }
+
+            if(getGlyph(character) == null)
+                throw new RuntimeException("Text does not follow rules");
+        }
+    }
+
+    /**
+     * Breaks the text greedily into lines in a single pass. A line is broken at the last run of
+     * spaces before the letter that doesn't fit anymore, the spaces themselves are dropped. A
+     * word that is wider than the whole line gets a line of its own
+     *
+     * @param continued whether the first line continues the last line laid out before
+     * @param scale the factor the widths of the letters are scaled by, 1 for laying the text out
+     */
+    private void breakLines(CharSequence text, float maxWidth, boolean continued, float scale){
+
+        lineCount = 0;
+
+        int lineStart = 0, wordStart = 0, spacesStart = -1;
+        float lineWidth = 0, wordWidth = 0, widthBeforeSpaces = 0;
+        boolean lineEmpty = true, afterLetter = false;
+
+        //the letters of the line that is continued can't move anymore, the line is measured from
+        //the left inset of the canvas
+        boolean fixed = continued && !endEmpty;
+        if(fixed){
+
+            lineWidth = endX - inset;
+            lineEmpty = false;
+            afterLetter = endAfterLetter;
+
+            if(endSpacesX >= 0){
+
+                spacesStart = 0;
+                widthBeforeSpaces = endSpacesX - inset;
+            }
+        }
+
+        for(int i=0, character; i<text.length(); i+=Character.charCount(character)){
+
+            character = Character.codePointAt(text, i);
+
+            if(character == '\n'){
+
+                addLine(text, lineStart, i, lineWidth);
+                lineStart = wordStart = i + 1;
+                lineWidth = wordWidth = 0;
+                spacesStart = -1;
+                lineEmpty = true;
+                afterLetter = fixed = false;
+                continue;
+            }
+
+            float letterWidth = glyphs.getGlyph(character).getWidth() * scale;
+
+            if(character == ' '){
+
+                //remembers where a run of spaces after a letter starts, the line gets broken there
+                if(afterLetter){
+
+                    spacesStart = i;
+                    widthBeforeSpaces = lineWidth;
+                }
+
+                lineWidth += letterWidth;
+                wordStart = i + 1;
+                wordWidth = 0;
+                lineEmpty = afterLetter = false;
+                continue;
+            }
+
+            float advance = (lineEmpty ? 0 : gap) + letterWidth;
+
+            if(lineWidth + advance > maxWidth && (spacesStart >= 0 || fixed)){
+
+                //the current word moves to the next line if this letter doesn't fit in the line
+                if(spacesStart >= 0){
+
+                    addLine(text, lineStart, spacesStart, widthBeforeSpaces);
+                    lineStart = wordStart;
+                    lineWidth = wordWidth;
+                }
+                //or only this letter, if the word started on a line that can't change anymore
+                else {
+
+                    addLine(text, lineStart, i, lineWidth);
+                    lineStart = wordStart = i;
+                    lineWidth = wordWidth = 0;
+                }
+
+                spacesStart = -1;
+                fixed = false;
+                advance = (i == lineStart ? 0 : gap) + letterWidth;
+            }
+
+            lineWidth += advance;
+            wordWidth += (i == wordStart ? 0 : gap) + letterWidth;
+            lineEmpty = false;
+            afterLetter = true;
+        }
+
+        addLine(text, lineStart, text.length(), lineWidth);
+    }
+
+    private float getWidestLine(){
+
+        float widest = 0;
+        for(int line=0; line<lineCount; line++)
+            widest = Math.max(widest, lineWidths[line]);
+        return widest;
+    }
+
+    /**
+     * @return the height of the lines broken last with the letters scaled by {@param scale}, the
+     * descenders of the letters included
+     */
+    private float getHeight(float scale){
+
+        float descents = 0;
+        for(int line=0; line<lineCount; line++)
+            descents += lineDescents[line];
+
+        return lineCount*(2*verticalBound*scale + lineSpacing) - lineSpacing + descents*scale;
+    }
+
+    private void addLine(CharSequence text, int start, int end, float width){
+
+        if(lineCount == lineStarts.length){
+
+            lineStarts = Arrays.copyOf(lineStarts, lineCount * 2);
+            lineEnds = Arrays.copyOf(lineEnds, lineCount * 2);
+            lineWidths = Arrays.copyOf(lineWidths, lineCount * 2);
+            lineDescents = Arrays.copyOf(lineDescents, lineCount * 2);
+        }
+
+        lineStarts[lineCount] = start;
+        lineEnds[lineCount] = end;
+        lineWidths[lineCount] = width;
+        lineDescents[lineCount] = getDescent(text, start, end);
+        lineCount++;
+    }
+
+    /**
+     * @return how far the lowest letter of the range reaches below the vertical bound, 0 if none
+     * of them has a descender
+     */
+    private float getDescent(CharSequence text, int start, int end){
+
+        float descent = 0;
+        for(int i=start, character; i<end; i+=Character.charCount(character)){
+
+            character = Character.codePointAt(text, i);
+
+            if(character != '\n')
+                descent = Math.max(descent, glyphs.getGlyph(character).getBottom() - verticalBound);
+        }
+        return descent;
+    }
+}
@@ -0,0 +1,365 @@
+
+/*
+ *
+ * MIT License
+ *
+ * Copyright (c) 2020 Sarnava Konar
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.sarnava.textwriter.core;
+
+import java.io.IOException;
+
+/**
+ * Writes the strokes of a {@link StrokeTimeline} as an SVG document or an Android
+ * AnimatedVectorDrawable, so the lettering can be used without running the animation. Every
+ * stroke becomes a path of its own that is written on at the same time it would be by the view,
+ * with the same {@link Stagger} and easings. The document is streamed to the output stroke by
+ * stroke
+ */
+public final class VectorWriter {
+
+    //the number of pieces the speed of the pen along an eased stroke is written in
+    private static final int CURVE_STEPS = 20;
+
+    private final float width, height;
+    private int color = Pen.DEFAULT_COLOR;
+    private float strokeWidth = Pen.DEFAULT_WIDTH;
+    private float density = 1;
+    private long duration;
+
+    //plans the windows of the letters the way the view does
+    private final StrokePlayer player = new StrokePlayer();
+    private Easing easing = Easing.LINEAR, strokeEasing = Easing.LINEAR;
+
+    //when the stroke being written starts and how long it takes in milliseconds, and the written
+    //part of it at evenly spaced times unless the pen moves at a constant speed
+    private long strokeStart, strokeDuration;
+    private final float[] curve = new float[CURVE_STEPS + 1];
+    private boolean linear;
+
+    //the path data of the stroke being written, reused for every stroke
+    private final StringBuilder pathData = new StringBuilder();
+    private final PathDataRenderer renderer = new PathDataRenderer(pathData);
+    private final StringBuilder number = new StringBuilder();
+
+    /**
+     * @param width the width of the canvas the text was laid out on
+     * @param height the height of the canvas the text was laid out on
+     */
+    public VectorWriter(float width, float height) {
+
+        this.width = width;
+        this.height = height;
+    }
+
+    /**
+     * @param color the color of the strokes as ARGB
+     */
+    public VectorWriter setColor(int color){
+
+        this.color = color;
+        return this;
+    }
+
+    public VectorWriter setStrokeWidth(float strokeWidth){
+
+        this.strokeWidth = strokeWidth;
+        return this;
+    }
+
+    /**
+     * @param density the density of the screen the text was laid out for. The AnimatedVectorDrawable
+     * is sized in dp, the size in pixels divided by the density. 1 by default, which writes the
+     * pixels as dp
+     */
+    public VectorWriter setDensity(float density){
+
+        this.density = density;
+        return this;
+    }
+
+    /**
+     * @param stagger {@link Stagger}, {@link Stagger#SEQUENTIAL} by default
+     */
+    public VectorWriter setStagger(Stagger stagger){
+
+        player.setStagger(stagger);
+        return this;
+    }
+
+    /**
+     * @param easing {@link Easing} of the whole writing time
+     */
+    public VectorWriter setEasing(Easing easing){
+
+        this.easing = easing;
+        player.setEasing(easing);
+        return this;
+    }
+
+    /**
+     * @param easing {@link Easing} of the pen along every stroke
+     */
+    public VectorWriter setStrokeEasing(Easing easing){
+
+        this.strokeEasing = easing;
+        player.setStrokeEasing(easing);
+        return this;
+    }
+
+    /**
+     * @param duration the time in milliseconds the whole text takes to be written, 0 for a still
+     * image of the whole text
+     */
+    public VectorWriter setDuration(long duration){
+
+        this.duration = duration;
+        return this;
+    }
+
+    /**
+     * Writes an SVG document, the strokes are written on by animating their stroke-dashoffset
+     */
+    public void writeSvg(StrokeTimeline timeline, Appendable out) throws IOException {
+
+        out.append("<svg xmlns=\"http://www.w3.org/2000/svg\" width=\"").append(format(width))
+                .append("\" height=\"").append(format(height))
+                .append("\" viewBox=\"0 0 ").append(format(width)).append(' ').append(format(height)).append("\">\n");
+
+        out.append("<g fill=\"none\" stroke=\"#").append(hex(color & 0xFFFFFF, 6)).append('"');
+        if((color >>> 24) != 0xFF)
+            out.append(" stroke-opacity=\"").append(format((color >>> 24) / 255f)).append('"');
+        out.append(" stroke-width=\"").append(format(strokeWidth))
+                .append("\" stroke-linecap=\"").append(Pen.CAP)
+                .append("\" stroke-linejoin=\"").append(Pen.JOIN).append("\">\n");
+
+        boolean animated = duration > 0 && timeline.getLength() > 0;
+        if(animated)
+            player.start(timeline);
+
+        for(int glyph = 0; glyph < timeline.getGlyphCount(); glyph++){
+
+            int glyphEnd = timeline.getGlyphEnd(glyph);
+            for(int start = timeline.getGlyphStart(glyph); start < glyphEnd; ){
+
+                int end = strokeEnd(timeline, start, glyphEnd);
+                float length = timeline.getEnd(end - 1) - timeline.getStart(start);
+
+                out.append("<path d=\"").append(pathData(timeline, start, end)).append('"');
+
+                if(animated) {
+
+                    //the dash as long as the stroke starts shifted by its whole length, which hides
+                    //it. pathLength makes the browser measure the stroke in the same units
+                    timeStroke(timeline, glyph, start, end);
+                    String dash = format(length).toString();
+                    out.append(" pathLength=\"").append(dash)
+                            .append("\" stroke-dasharray=\"").append(dash).append(' ').append(dash)
+                            .append("\" stroke-dashoffset=\"").append(dash).append("\">\n");
+                    out.append("<animate attributeName=\"stroke-dashoffset\" ");
+
+                    if(linear)
+                        out.append("from=\"").append(dash).append("\" to=\"0\"");
+                    else {
+
+                        //the eased pen is written as the offsets at evenly spaced times
+                        out.append("values=\"");
+                        for(int i=0; i<=CURVE_STEPS; i++)
+                            out.append(i > 0 ? ";" : "").append(format(length * (1 - curve[i])));
+                        out.append("\" keyTimes=\"");
+                        for(int i=0; i<=CURVE_STEPS; i++)
+                            out.append(i > 0 ? ";" : "").append(format((float) i / CURVE_STEPS));
+                        out.append('"');
+                    }
+
+                    out.append(" begin=\"").append(Long.toString(strokeStart))
+                            .append("ms\" dur=\"").append(Long.toString(strokeDuration))
+                            .append("ms\" fill=\"freeze\"/>\n</path>\n");
+                }
+                else
+                    out.append("/>\n");
+
+                start = end;
+            }
+        }
+
+        out.append("</g>\n</svg>\n");
+    }
+
+    /**
+     * Writes an AnimatedVectorDrawable with the vector drawable inlined, the strokes are written
+     * on by animating their trimPathEnd
+     */
+    public void writeAnimatedVector(StrokeTimeline timeline, Appendable out) throws IOException {
+
+        out.append("<animated-vector xmlns:android=\"http://schemas.android.com/apk/res/android\"\n")
+                .append("    xmlns:aapt=\"http://schemas.android.com/aapt\">\n")
+                .append("    <aapt:attr name=\"android:drawable\">\n")
+                .append("        <vector\n")
+                .append("            android:width=\"").append(format(width / density)).append("dp\"\n")
+                .append("            android:height=\"").append(format(height / density)).append("dp\"\n")
+                .append("            android:viewportWidth=\"").append(format(width)).append("\"\n")
+                .append("            android:viewportHeight=\"").append(format(height)).append("\">\n");
+
+        int stroke = 0;
+        for(int glyph = 0; glyph < timeline.getGlyphCount(); glyph++){
+
+            int glyphEnd = timeline.getGlyphEnd(glyph);
+            for(int start = timeline.getGlyphStart(glyph); start < glyphEnd; stroke++){
+
+                int end = strokeEnd(timeline, start, glyphEnd);
+
+                out.append("            <path\n")
+                        .append("                android:name=\"stroke").append(Integer.toString(stroke)).append("\"\n")
+                        .append("                android:pathData=\"").append(pathData(timeline, start, end)).append("\"\n")
+                        .append("                android:strokeColor=\"#").append(hex(color, 8)).append("\"\n")
+                        .append("                android:strokeWidth=\"").append(format(strokeWidth)).append("\"\n")
+                        .append("                android:strokeLineCap=\"").append(Pen.CAP).append("\"\n")
+                        .append("                android:strokeLineJoin=\"").append(Pen.JOIN).append("\"\n")
+                        .append("                android:trimPathEnd=\"").append(duration > 0 ? "0" : "1").append("\"/>\n");
+
+                start = end;
+            }
+        }
+
+        out.append("        </vector>\n    </aapt:attr>\n");
+
+        if(duration > 0 && timeline.getLength() > 0)
+            player.start(timeline);
+
+        stroke = 0;
+        for(int glyph = 0; duration > 0 && glyph < timeline.getGlyphCount(); glyph++){
+
+            int glyphEnd = timeline.getGlyphEnd(glyph);
+            for(int start = timeline.getGlyphStart(glyph); start < glyphEnd; stroke++){
+
+                int end = strokeEnd(timeline, start, glyphEnd);
+                timeStroke(timeline, glyph, start, end);
+
+                out.append("    <target android:name=\"stroke").append(Integer.toString(stroke)).append("\">\n")
+                        .append("        <aapt:attr name=\"android:animation\">\n")
+                        .append("            <objectAnimator\n")
+                        .append("                android:propertyName=\"trimPathEnd\"\n")
+                        .append("                android:valueFrom=\"0\"\n")
+                        .append("                android:valueTo=\"1\"\n")
+                        .append("                android:valueType=\"floatType\"\n")
+                        .append("                android:startOffset=\"").append(Long.toString(strokeStart)).append("\"\n")
+                        .append("                android:duration=\"").append(Long.toString(strokeDuration)).append('"');
+
+                if(linear)
+                    out.append("\n                android:interpolator=\"@android:anim/linear_interpolator\"/>\n");
+                else {
+
+                    //the eased pen is written as a curve through the written part at evenly spaced
+                    //times
+                    out.append(">\n                <aapt:attr name=\"android:interpolator\">\n")
+                            .append("                    <pathInterpolator android:pathData=\"M0 0");
+                    for(int i=1; i<=CURVE_STEPS; i++)
+                        out.append(" L").append(format((float) i / CURVE_STEPS)).append(' ').append(format(curve[i]));
+                    out.append("\"/>\n                </aapt:attr>\n            </objectAnimator>\n");
+                }
+
+                out.append("        </aapt:attr>\n    </target>\n");
+
+                start = end;
+            }
+        }
+
+        out.append("</animated-vector>\n");
+    }
+
+    /**
+     * @return the index after the last segment of the stroke that starts at {@param start}, the
+     * stroke ends with its glyph at the latest
+     */
+    private static int strokeEnd(StrokeTimeline timeline, int start, int glyphEnd){
+
+        int end = start + 1;
+        while(end < glyphEnd && !timeline.startsStroke(end))
+            end++;
+        return end;
+    }
+
+    /**
+     * Finds when the stroke from {@param start} up to {@param end} is written within the window
+     * of its glyph, and how far the pen is along it in between, the same way the view draws the
+     * glyph. The glyph shares its window by the lengths of its strokes and the easing of the whole
+     * time moves the window, the stroke easing then moves the pen along the stroke
+     */
+    private void timeStroke(StrokeTimeline timeline, int glyph, int start, int end){
+
+        float glyphStart = timeline.getStart(timeline.getGlyphStart(glyph));
+        float glyphLength = timeline.getEnd(timeline.getGlyphEnd(glyph) - 1) - glyphStart;
+        float windowStart = player.getWindowStart(glyph);
+        float window = player.getWindowEnd(glyph) - windowStart;
+
+        //the window of the stroke within the eased time, and within the writing time
+        float from = windowStart, to = windowStart + window;
+        if(glyphLength > 0) {
+
+            from += window * (timeline.getStart(start) - glyphStart) / glyphLength;
+            to = windowStart + window * (timeline.getEnd(end - 1) - glyphStart) / glyphLength;
+        }
+        float startTime = player.getTime(from), endTime = player.getTime(to);
+
+        strokeStart = Math.round(duration * (double) startTime);
+        strokeDuration = Math.max(1, Math.round(duration * (double) (endTime - startTime)));
+
+        linear = easing == Easing.LINEAR && strokeEasing == Easing.LINEAR;
+        if(linear)
+            return;
+
+        for(int i=0; i<=CURVE_STEPS; i++){
+
+            float time = startTime + (endTime - startTime) * i / CURVE_STEPS;
+            float eased = Math.max(0, Math.min(1, easing.getInterpolation(time)));
+            float written = to > from ? Math.max(0, Math.min(1, (eased - from) / (to - from))) : 1;
+            curve[i] = Math.max(0, Math.min(1, strokeEasing.getInterpolation(written)));
+        }
+
+        //the curve starts and ends exactly where an interpolator has to
+        curve[0] = 0;
+        curve[CURVE_STEPS] = 1;
+    }
+
+    private CharSequence pathData(StrokeTimeline timeline, int start, int end){
+
+        pathData.setLength(0);
+        timeline.drawRange(start, end, renderer);
+        return pathData;
+    }
+
+    private CharSequence format(float value){
+
+        number.setLength(0);
+        PathDataRenderer.appendNumber(number, value);
+        return number;
+    }
+
+    private static String hex(int value, int digits){
+
+        String hex = Integer.toHexString(value).toUpperCase();
+        while(hex.length() < digits)
+            hex = "0" + hex;
+        return hex;
+    }
+}
@@ -0,0 +1,209 @@
+
+/*
+ *
+ * MIT License
+ *
+ * Copyright (c) 2020 Sarnava Konar
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.sarnava.textwriter.core;
+
+/**
+ * The clock of the writing, which maps the time of a frame to the part of the writing time
+ * elapsed in the direction the text is played in. It is anchored to the first frame it gets
+ * after it is started or re-anchored, so any time it doesn't get frames for is skipped
+ */
+public final class WritingClock {
+
+    private long duration, startTime = -1, elapsed;
+    private boolean started, reversing;
+
+    //where a writing that is laid out again continues from once it is started, the direction
+    //is kept only if it is known
+    private boolean restoring, restoresDirection, restoredReversing;
+    private float restoredProgress;
+
+    /**
+     * Makes the next start continue from the progress in the direction it starts in
+     *
+     * @param progress from 0 (nothing written) to 1 (everything written)
+     */
+    public void restore(float progress){
+
+        restoring = true;
+        restoresDirection = false;
+        restoredProgress = progress;
+    }
+
+    /**
+     * Makes the next start continue from the progress in the direction, like a ping-pong that
+     * was un-writing the text
+     *
+     * @param progress from 0 (nothing written) to 1 (everything written)
+     */
+    public void restore(float progress, boolean reversing){
+
+        restore(progress);
+        restoresDirection = true;
+        restoredReversing = reversing;
+    }
+
+    /**
+     * Starts a pass in the direction, or continues from where the writing was restored
+     *
+     * @param duration the time a pass takes in nanoseconds
+     * @return whether the writing continues from a restored progress
+     */
+    public boolean start(long duration, boolean reversing){
+
+        this.duration = duration;
+        this.reversing = restoring && restoresDirection ? restoredReversing : reversing;
+        started = true;
+        elapsed = 0;
+        startTime = -1;
+
+        if(!restoring)
+            return false;
+
+        restoring = false;
+        seek(restoredProgress);
+        return true;
+    }
+
+    /**
+     * Anchors the clock on the next frame, the time until then is skipped
+     */
+    public void reanchor(){
+
+        startTime = -1;
+    }
+
+    /**
+     * Anchors the clock so that the pass is where it is now at the time of a frame, a later
+     * frame than the next one delays the pass
+     */
+    public void anchor(long frameTimeNanos){
+
+        startTime = frameTimeNanos - elapsed;
+    }
+
+    /**
+     * Advances the clock to the frame
+     *
+     * @return the part of the pass elapsed, from 0 to 1
+     */
+    public float tick(long frameTimeNanos){
+
+        if(startTime < 0)
+            anchor(frameTimeNanos);
+
+        elapsed = Math.max(0, frameTimeNanos - startTime);
+        return getTime();
+    }
+
+    /**
+     * @return the part of the pass elapsed, from 0 to 1. The end is reached only once the whole
+     * duration has elapsed
+     */
+    public float getTime(){
+
+        return elapsed >= duration ? 1 : (float) elapsed / duration;
+    }
+
+    /**
+     * @return how much of the text is written, from 0 to 1
+     */
+    public float getProgress(){
+
+        if(restoring)
+            return restoredProgress;
+        if(!started)
+            return 0;
+
+        float time = getTime();
+        return reversing ? 1 - time : time;
+    }
+
+    /**
+     * Jumps to the point of the pass where the progress is reached, the clock is anchored again
+     * on the next frame
+     */
+    public void seek(float progress){
+
+        elapsed = (long) (duration * (double) (reversing ? 1 - progress : progress));
+        startTime = -1;
+    }
+
+    /**
+     * Turns the pass around from where it is
+     */
+    public void reverse(){
+
+        reversing = !reversing;
+        elapsed = duration - Math.min(elapsed, duration);
+        startTime = -1;
+    }
+
+    /**
+     * Starts the next pass in the other direction once a pass is done, with the time the last
+     * frame overshot the pass already elapsed
+     */
+    public void turn(){
+
+        reversing = !reversing;
+        startTime += duration;
+        elapsed = Math.max(0, elapsed - duration);
+    }
+
+    /**
+     * Changes the time the pass takes and continues it from the progress, the frames keep
+     * counting from there
+     */
+    public void stretch(long duration, float progress){
+
+        this.duration = duration;
+
+        long continued = (long) (duration * (double) (reversing ? 1 - progress : progress));
+        if(startTime >= 0)
+            startTime += elapsed - continued;
+        elapsed = continued;
+    }
+
+    /**
+     * @return whether the text is being un-written, or will be once a restored writing starts
+     */
+    public boolean isReversing(){
+
+        return restoring && restoresDirection ? restoredReversing : reversing;
+    }
+
+    /**
+     * @return whether the next start continues from a restored progress in a known direction
+     */
+    public boolean restoresDirection(){
+
+        return restoring && restoresDirection;
+    }
+
+    public long getDuration(){
+
+        return duration;
+    }
+}
@@ -0,0 +1,282 @@
+
+/*
+ *
+ * MIT License
+ *
+ * Copyright (c) 2020 Sarnava Konar
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.sarnava.textwriter.core;
+
+/**
+ * Records how long every frame of a writing takes, in a ring buffer that keeps the latest frames
+ * and histograms that cover all of them. Nothing is allocated once it is created, so it can stay
+ * on in production
+ */
+public final class WritingMetrics {
+
+    //the upper bounds of the histogram buckets in nanoseconds, the last bucket has no bound
+    private static final long[] BUCKET_BOUNDS = {
+            250000L, 500000L, 1000000L, 2000000L, 4000000L, 8000000L, 16000000L, 32000000L, 64000000L
+    };
+
+    private final long[] updateNanos, drawNanos, intervalNanos;
+    private final int[] segmentCounts;
+    private final int[] updateHistogram = new int[BUCKET_BOUNDS.length + 1];
+    private final int[] drawHistogram = new int[BUCKET_BOUNDS.length + 1];
+
+    private long targetFrameNanos, startNanos, totalNanos, lastFrameNanos;
+
+    //the time the writing was paused for, and since when it is paused or -1
+    private long pausedNanos, pauseStartNanos;
+    private int frameCount, lateFrames, droppedFrames;
+
+    //whether the latest frame isn't drawn yet
+    private boolean drawPending;
+
+    /**
+     * @param capacity the number of the latest frames kept
+     */
+    public WritingMetrics(int capacity) {
+
+        updateNanos = new long[capacity];
+        drawNanos = new long[capacity];
+        intervalNanos = new long[capacity];
+        segmentCounts = new int[capacity];
+    }
+
+    /**
+     * Starts recording the writing of a text, everything recorded before is cleared
+     *
+     * @param targetFrameNanos the time b/w two frames at the refresh rate of the display
+     */
+    public void begin(long nanos, long targetFrameNanos){
+
+        this.targetFrameNanos = targetFrameNanos;
+        startNanos = nanos;
+        totalNanos = 0;
+        lastFrameNanos = -1;
+        pausedNanos = 0;
+        pauseStartNanos = -1;
+        frameCount = lateFrames = droppedFrames = 0;
+        drawPending = false;
+
+        for(int i=0; i<updateHistogram.length; i++){
+
+            updateHistogram[i] = 0;
+            drawHistogram[i] = 0;
+        }
+    }
+
+    /**
+     * Records a frame of the animation
+     *
+     * @param frameTimeNanos the time the frame was due
+     * @param updateNanos the time taken to update the written paths
+     * @param segmentCount the number of segments drawn as a path in the frame
+     */
+    public void recordFrame(long frameTimeNanos, long updateNanos, int segmentCount){
+
+        long interval = lastFrameNanos < 0 ? targetFrameNanos : frameTimeNanos - lastFrameNanos;
+        lastFrameNanos = frameTimeNanos;
+
+        //a frame is late if it comes half a frame after it was due, the frames in b/w are dropped
+        if(targetFrameNanos > 0 && interval > targetFrameNanos + targetFrameNanos/2){
+
+            lateFrames++;
+            droppedFrames += (int) ((interval + targetFrameNanos/2) / targetFrameNanos) - 1;
+        }
+
+        int index = frameCount % this.updateNanos.length;
+        this.updateNanos[index] = updateNanos;
+        drawNanos[index] = 0;
+        intervalNanos[index] = interval;
+        segmentCounts[index] = segmentCount;
+        frameCount++;
+        drawPending = true;
+
+        updateHistogram[bucket(updateNanos)]++;
+    }
+
+    /**
+     * Records the time taken to draw the latest frame. Only the first draw after a frame is
+     * recorded, a redraw without a new frame, like the one of a paused or finished text, isn't
+     * part of the writing
+     */
+    public void recordDraw(long drawNanos){
+
+        if(!drawPending)
+            return;
+
+        this.drawNanos[(frameCount - 1) % this.drawNanos.length] = drawNanos;
+        drawHistogram[bucket(drawNanos)]++;
+        drawPending = false;
+    }
+
+    /**
+     * Stops counting the time while the writing is paused or hidden, until {@link #resume(long)}
+     */
+    public void pause(long nanos){
+
+        if(pauseStartNanos < 0)
+            pauseStartNanos = nanos;
+    }
+
+    /**
+     * Continues after the writing was paused or its clock moved, the time since the frame before
+     * isn't an interval b/w two frames, so the next frame isn't counted as late
+     */
+    public void resume(long nanos){
+
+        if(pauseStartNanos >= 0) {
+
+            pausedNanos += nanos - pauseStartNanos;
+            pauseStartNanos = -1;
+        }
+        lastFrameNanos = -1;
+    }
+
+    /**
+     * Stops recording once a pass over the text is done
+     */
+    public void end(long nanos){
+
+        resume(nanos);
+        totalNanos = nanos - startNanos - pausedNanos;
+    }
+
+    /**
+     * @return the number of frames recorded, the latest {@link #getSize()} of them are kept
+     */
+    public int getFrameCount(){
+
+        return frameCount;
+    }
+
+    /**
+     * @return the number of frames kept, which can be read from the oldest at 0 to the latest
+     */
+    public int getSize(){
+
+        return Math.min(frameCount, updateNanos.length);
+    }
+
+    public long getUpdateNanos(int index){
+
+        return updateNanos[slot(index)];
+    }
+
+    public long getDrawNanos(int index){
+
+        return drawNanos[slot(index)];
+    }
+
+    /**
+     * @return the time since the frame before
+     */
+    public long getIntervalNanos(int index){
+
+        return intervalNanos[slot(index)];
+    }
+
+    public int getSegmentCount(int index){
+
+        return segmentCounts[slot(index)];
+    }
+
+    public long getTargetFrameNanos(){
+
+        return targetFrameNanos;
+    }
+
+    /**
+     * @return the number of frames that came later than half a frame after they were due
+     */
+    public int getLateFrames(){
+
+        return lateFrames;
+    }
+
+    /**
+     * @return the number of frames of the display that were skipped b/w the recorded frames
+     */
+    public int getDroppedFrames(){
+
+        return droppedFrames;
+    }
+
+    /**
+     * @return the time from the start of writing until the pass over the text was done, without
+     * the time it was paused for
+     */
+    public long getTotalNanos(){
+
+        return totalNanos;
+    }
+
+    public static int getBucketCount(){
+
+        return BUCKET_BOUNDS.length + 1;
+    }
+
+    /**
+     * @return the upper bound of the bucket in nanoseconds, {@link Long#MAX_VALUE} for the last
+     */
+    public static long getBucketBound(int bucket){
+
+        return bucket < BUCKET_BOUNDS.length ? BUCKET_BOUNDS[bucket] : Long.MAX_VALUE;
+    }
+
+    /**
+     * Copies the number of frames per bucket of update time to {@param histogram}
+     *
+     * @return {@param histogram}
+     */
+    public int[] getUpdateHistogram(int[] histogram){
+
+        System.arraycopy(updateHistogram, 0, histogram, 0, updateHistogram.length);
+        return histogram;
+    }
+
+    /**
+     * Copies the number of frames per bucket of draw time to {@param histogram}
+     *
+     * @return {@param histogram}
+     */
+    public int[] getDrawHistogram(int[] histogram){
+
+        System.arraycopy(drawHistogram, 0, histogram, 0, drawHistogram.length);
+        return histogram;
+    }
+
+    private int slot(int index){
+
+        return (frameCount - getSize() + index) % updateNanos.length;
+    }
+
+    private static int bucket(long nanos){
+
+        int bucket = 0;
+        while(bucket < BUCKET_BOUNDS.length && nanos > BUCKET_BOUNDS[bucket])
+            bucket++;
+        return bucket;
+    }
+}
@@ -0,0 +1,107 @@
+package com.sarnava.textwriter.core;
+
+import org.junit.Test;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+
+public class GlyphRegistryTest {
+
+    @Test
+    public void getDefault_hasEveryShippedSet() {
+
+        GlyphRegistry registry = GlyphRegistry.getDefault();
+        GlyphSet[] sets = {GlyphSets.WHITESPACE, GlyphSets.UPPERCASE, GlyphSets.LOWERCASE,
+                GlyphSets.DIGITS, GlyphSets.PUNCTUATION};
+
+        for(GlyphSet set : sets){
+
+            for(int i=0; i<set.size(); i++)
+                assertSame(set.getGlyph(i), registry.get(set.getCodePoint(i)));
+        }
+        assertEquals(26, GlyphSets.LOWERCASE.size());
+        assertEquals(10, GlyphSets.DIGITS.size());
+        assertNull(registry.get(0x1F600));
+        assertNull(registry.get(-1));
+    }
+
+    @Test
+    public void cache_scalesLettersRegisteredLater() {
+
+        GlyphRegistry registry = new GlyphRegistry().register(GlyphSets.UPPERCASE);
+        GlyphCache cache = GlyphCache.get(registry, 50, 100);
+        assertNull(cache.getGlyph('a'));
+
+        //a code point outside the basic plane is just another key
+        Glyph smile = new Glyph.Builder(1, 1).moveTo(-1, 0).lineTo(1, 0).build();
+        registry.register(0x1F600, smile);
+        registry.register(GlyphSets.LOWERCASE);
+
+        assertNotNull(cache.getGlyph('a'));
+        assertEquals(100, cache.getGlyph(0x1F600).getWidth(), 0.001f);
+        assertSame(cache, GlyphCache.get(registry, 50, 100));
+
+        float width = new TextLayout(registry, 50, 100, 30, 0, TextLayout.Alignment.CENTER)
+                .measure("A\uD83D\uDE00a");
+        assertEquals(100 + 100 + 75 + 2*30, width, 0.001f);
+    }
+
+    @Test
+    public void cache_keepsOnlyTheSizesUsedLately() {
+
+        GlyphRegistry registry = new GlyphRegistry().register(GlyphSets.UPPERCASE);
+        GlyphCache first = GlyphCache.get(registry, 50, 100);
+
+        //a text fitted to a view that keeps changing its size
+        for(int size=0; size<1000; size++){
+
+            GlyphCache.get(registry, 50, 100);
+            GlyphCache.get(registry, size / 2f, size);
+        }
+
+        assertEquals(GlyphRegistry.CACHE_CAPACITY, registry.caches.size());
+        assertSame(first, GlyphCache.get(registry, 50, 100));
+    }
+
+    @Test
+    public void cache_scalesEachLetterOnceForAllThreads() throws Exception {
+
+        final GlyphRegistry registry = new GlyphRegistry().register(GlyphSets.UPPERCASE);
+        final GlyphCache cache = GlyphCache.get(registry, 50, 100);
+
+        //texts laid out in the background while the view lays out its own
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        Future<?>[] results = new Future<?>[4];
+        try {
+            for(int i=0; i<results.length; i++){
+
+                results[i] = executor.submit(new Callable<Glyph[]>() {
+                    @Override
+                    public Glyph[] call() {
+
+                        Glyph[] glyphs = new Glyph[26];
+                        for(int c=0; c<glyphs.length; c++)
+                            glyphs[c] = cache.getGlyph('A' + c);
+                        return glyphs;
+                    }
+                });
+            }
+
+            for(Future<?> result : results){
+
+                Glyph[] glyphs = (Glyph[]) result.get();
+                for(int c=0; c<glyphs.length; c++)
+                    assertSame(cache.getGlyph('A' + c), glyphs[c]);
+            }
+        } finally {
+            executor.shutdown();
+        }
+    }
+}
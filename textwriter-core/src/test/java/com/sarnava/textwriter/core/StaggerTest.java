@@ -0,0 +1,100 @@
+package com.sarnava.textwriter.core;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class StaggerTest {
+
+    private StrokeTimeline timeline;
+    private float[] starts, ends;
+
+    @Before
+    public void setUp() {
+
+        timeline = new StrokeTimeline();
+        new TextLayout(50, 100, 30).layout("HELLO WORLD", 2000, 300, timeline);
+
+        starts = new float[timeline.getGlyphCount()];
+        ends = new float[timeline.getGlyphCount()];
+    }
+
+    @Test
+    public void sequential_followsTheDrawnLength() {
+
+        assertEquals(timeline.getLength(), Stagger.SEQUENTIAL.plan(timeline, starts, ends), 0.001f);
+
+        assertEquals(0, starts[0], 0);
+        assertEquals(1, ends[ends.length - 1], 0.0001f);
+        for(int g=1; g<starts.length; g++)
+            assertTrue(starts[g] >= ends[g - 1] - 0.0001f);
+    }
+
+    @Test
+    public void allAtOnce_writesEveryLetterTogether() {
+
+        float paced = Stagger.ALL_AT_ONCE.plan(timeline, starts, ends);
+        assertTrue(paced < timeline.getLength());
+
+        for(int g=0; g<starts.length; g++){
+
+            boolean space = g == 5;
+            assertEquals(0, starts[g], 0);
+            assertEquals(space ? 0 : 1, ends[g], 0);
+        }
+    }
+
+    @Test
+    public void word_writesTheWordsSideBySide() {
+
+        Stagger.WORD.plan(timeline, starts, ends);
+
+        //H and W start together, O and D end together
+        assertEquals(0, starts[0], 0);
+        assertEquals(0, starts[6], 0);
+        assertEquals(1, ends[4], 0.0001f);
+        assertEquals(1, ends[10], 0.0001f);
+        assertEquals(ends[0], starts[1], 0.0001f);
+    }
+
+    @Test
+    public void letters_offsetEveryLetterWithinTheWholeTime() {
+
+        Stagger.letters(0.5f).plan(timeline, starts, ends);
+
+        //ten letters of the same time d, each starting d/2 after the one before: 9d/2 + d = 1
+        float letterTime = 1 / 5.5f;
+        assertEquals(0, starts[0], 0);
+        assertEquals(letterTime, ends[0], 0.0001f);
+        assertEquals(letterTime / 2, starts[1], 0.0001f);
+        assertEquals(starts[4] + letterTime / 2, starts[6], 0.0001f);
+        assertEquals(1, ends[10], 0.0001f);
+    }
+
+    @Test
+    public void drawGlyph_drawsTheWholeGlyphAtOne() {
+
+        final int[] calls = new int[1];
+        StrokeRenderer counter = new StrokeRenderer() {
+            @Override
+            public void moveTo(float x, float y) {}
+
+            @Override
+            public void lineTo(float x, float y) { calls[0]++; }
+
+            @Override
+            public void arcTo(float left, float top, float right, float bottom, float startAngle, float sweepAngle) { calls[0]++; }
+        };
+
+        timeline.drawGlyph(1, 1, Easing.LINEAR, counter);
+        assertEquals(timeline.getGlyphEnd(1) - timeline.getGlyphStart(1), calls[0]);
+
+        calls[0] = 0;
+        timeline.drawGlyph(1, 0, Easing.LINEAR, counter);
+        assertEquals(0, calls[0]);
+
+        timeline.drawGlyph(5, 1, Easing.LINEAR, counter);
+        assertEquals(0, calls[0]);
+    }
+}
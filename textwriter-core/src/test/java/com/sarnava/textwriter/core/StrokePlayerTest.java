@@ -0,0 +1,239 @@
+package com.sarnava.textwriter.core;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.lang.management.ManagementFactory;
+import java.util.Random;
+
+import static org.junit.Assert.*;
+import static org.junit.Assume.assumeTrue;
+
+public class StrokePlayerTest {
+
+    private static final Stagger[] STAGGERS = {Stagger.SEQUENTIAL, Stagger.letters(0.3f), Stagger.WORD, Stagger.ALL_AT_ONCE};
+
+    private final StrokeTimeline timeline = new StrokeTimeline();
+    private final StrokePlayer player = new StrokePlayer();
+    private final CountingRenderer completed = new CountingRenderer(), current = new CountingRenderer();
+
+    @Before
+    public void setUp() {
+
+        new TextLayout(50, 100, 30).layout("ABC DEFG HI JKLMN", 10000, 1000, timeline);
+    }
+
+    @Test
+    public void reveal_matchesThePlanAtAnyTime() {
+
+        float[] starts = new float[timeline.getGlyphCount()], ends = new float[timeline.getGlyphCount()];
+        Random random = new Random(7);
+
+        for(Stagger stagger : STAGGERS){
+
+            stagger.plan(timeline, starts, ends);
+            player.setStagger(stagger).start(timeline);
+
+            //written, un-written and then jumping back and forth
+            float last = 0;
+            for(int frame = 0; frame < 1000; frame++){
+
+                float time = frame <= 200 ? frame / 200f : frame <= 400 ? (400 - frame) / 200f : random.nextFloat();
+
+                boolean kept = player.reveal(time, completed, current);
+                assertEquals(completeSegments(ends, time) >= completeSegments(ends, last), kept);
+                last = time;
+
+                assertEquals(openSegments(starts, ends, time), player.getOpenSegments());
+
+                completed.segments = 0;
+                player.drawCompleted(completed);
+                assertEquals(completeSegments(ends, time), completed.segments);
+                assertEquals(completed.segments == timeline.getSegmentCount(), player.isWritten());
+            }
+        }
+    }
+
+    @Test
+    public void reveal_drawsEveryLetterToTheCacheOnce() {
+
+        for(Stagger stagger : STAGGERS){
+
+            player.setStagger(stagger).setEasing(Easing.EASE_IN_OUT).start(timeline);
+            completed.segments = 0;
+
+            for(int frame = 0; frame <= 100; frame++)
+                player.reveal(frame / 100f, completed, current);
+
+            assertTrue(player.isWritten());
+            assertEquals(0, player.getOpenSegments());
+            assertEquals(timeline.getSegmentCount(), completed.segments);
+        }
+    }
+
+    @Test
+    public void reveal_takesBackTheLastCompletedLetters() {
+
+        float[] starts = new float[timeline.getGlyphCount()], ends = new float[timeline.getGlyphCount()];
+        for(Stagger stagger : STAGGERS){
+
+            stagger.plan(timeline, starts, ends);
+            player.setStagger(stagger).start(timeline);
+            player.reveal(0.8f, completed, current);
+            int written = player.getCompletedCount();
+
+            //every letter ends together when written all at once, so none is taken back
+            boolean unchanged = player.reveal(0.5f, completed, current);
+            int kept = player.getCompletedCount();
+            assertEquals(kept == written, unchanged);
+
+            //the letters before the count are the complete ones, the ones taken back follow them
+            for(int i = 0; i < written; i++){
+
+                float end = ends[player.getCompletedGlyph(i)];
+                assertEquals(i < kept, end <= 0.5f);
+                assertTrue(end <= 0.8f);
+            }
+
+            //a rectangle around everything draws all the complete letters, one past them none
+            int segments = completeSegments(ends, 0.5f);
+            completed.segments = 0;
+            player.drawCompleted(-Float.MAX_VALUE, -Float.MAX_VALUE, Float.MAX_VALUE, Float.MAX_VALUE, completed);
+            assertEquals(segments, completed.segments);
+
+            completed.segments = 0;
+            player.drawCompleted(-2, -2, -1, -1, completed);
+            assertEquals(0, completed.segments);
+        }
+    }
+
+    @Test
+    public void replan_keepsTheWrittenLength() {
+
+        TextLayout layout = new TextLayout(50, 100, 30);
+        StrokeTimeline appended = new StrokeTimeline();
+        layout.layout("ABC", 10000, 1000, appended);
+
+        player.setEasing(Easing.EASE_IN_OUT).start(appended);
+        player.reveal(0.6f, completed, current);
+        int written = completed.segments, drawing = current.segments;
+
+        layout.append(" DEFG", 10000, appended);
+        float time = player.replan();
+        assertTrue(time < 0.6f);
+
+        //the same letters are complete without drawing them again and the same segment is being
+        //drawn
+        completed.segments = current.segments = 0;
+        assertTrue(player.reveal(time, completed, current));
+        assertEquals(0, completed.segments);
+        assertEquals(drawing, current.segments);
+
+        player.drawCompleted(completed);
+        assertEquals(written, completed.segments);
+    }
+
+    @Test
+    public void replan_writesAppendedLettersInTheTimeLeft() {
+
+        TextLayout layout = new TextLayout(50, 100, 30);
+        StrokeTimeline appended = new StrokeTimeline();
+        layout.layout("ABC", 10000, 1000, appended);
+
+        player.setStagger(Stagger.ALL_AT_ONCE).start(appended);
+        player.reveal(0.5f, completed, current);
+
+        layout.append("DEF", 10000, appended);
+        float time = player.replan();
+
+        //the appended letters start from nothing while the others go on, and all end together
+        current.segments = 0;
+        player.reveal(time + 0.001f, completed, current);
+        assertTrue(current.segments > 0);
+
+        assertFalse(player.isWritten());
+        player.reveal(1, completed, current);
+        assertTrue(player.isWritten());
+    }
+
+    @Test
+    public void reveal_doesNotAllocate() {
+
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        assumeTrue(threads.isThreadAllocatedMemorySupported());
+        threads.setThreadAllocatedMemoryEnabled(true);
+
+        long thread = Thread.currentThread().getId();
+        player.setStagger(Stagger.letters(0.5f)).setStrokeEasing(Easing.EASE_OUT).start(timeline);
+
+        //warms up the stepping code and measures what reading the counter allocates by itself
+        playback();
+        long overhead = threads.getThreadAllocatedBytes(thread);
+        overhead = threads.getThreadAllocatedBytes(thread) - overhead;
+
+        long before = threads.getThreadAllocatedBytes(thread);
+        playback();
+        long allocated = threads.getThreadAllocatedBytes(thread) - before - overhead;
+
+        assertEquals(0, allocated);
+    }
+
+    private void playback() {
+
+        //written and un-written again, the way a ping-pong plays it
+        for(int frame = 0; frame <= 2000; frame++){
+
+            player.reveal(frame <= 1000 ? frame / 1000f : (2000 - frame) / 1000f, completed, current);
+            if(frame > 1000)
+                player.drawCompleted(completed);
+        }
+    }
+
+    /**
+     * @return the number of segments of the letters complete at the time
+     */
+    private int completeSegments(float[] ends, float time) {
+
+        int segments = 0;
+        for(int g=0; g<timeline.getGlyphCount(); g++){
+
+            if(time >= 1 || ends[g] <= time)
+                segments += timeline.getGlyphEnd(g) - timeline.getGlyphStart(g);
+        }
+        return segments;
+    }
+
+    /**
+     * @return the number of segments of the letters in progress at the time
+     */
+    private int openSegments(float[] starts, float[] ends, float time) {
+
+        int segments = 0;
+        for(int g=0; g<timeline.getGlyphCount(); g++){
+
+            if(time < 1 && starts[g] < time && time < ends[g])
+                segments += timeline.getGlyphEnd(g) - timeline.getGlyphStart(g);
+        }
+        return segments;
+    }
+
+    private static class CountingRenderer implements StrokeRenderer {
+
+        int segments;
+
+        @Override
+        public void moveTo(float x, float y) {}
+
+        @Override
+        public void lineTo(float x, float y) {
+
+            segments++;
+        }
+
+        @Override
+        public void arcTo(float left, float top, float right, float bottom, float startAngle, float sweepAngle) {
+
+            segments++;
+        }
+    }
+}
@@ -0,0 +1,195 @@
+package com.sarnava.textwriter.core;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.lang.management.ManagementFactory;
+
+import static org.junit.Assert.*;
+import static org.junit.Assume.assumeTrue;
+
+public class StrokeTimelineTest {
+
+    private static final int FRAMES = 10000;
+
+    private final StrokeRenderer renderer = new StrokeRenderer() {
+        @Override
+        public void moveTo(float x, float y) {}
+
+        @Override
+        public void lineTo(float x, float y) {}
+
+        @Override
+        public void arcTo(float left, float top, float right, float bottom, float startAngle, float sweepAngle) {}
+    };
+
+    private StrokeTimeline timeline;
+
+    @Before
+    public void setUp() {
+
+        timeline = new StrokeTimeline();
+
+        float centreX = 0;
+        for(char character = 'A'; character <= 'Z'; character++){
+
+            Glyph glyph = GlyphRegistry.getDefault().get(character).scale(50, 100);
+            centreX += glyph.getLeft();
+            timeline.add(glyph, centreX, 0);
+            centreX += glyph.getRight() + 30;
+        }
+    }
+
+    @Test
+    public void reveal_writesEverySegmentOnce() {
+
+        int written = 0;
+        for(int frame = 0; frame <= FRAMES; frame++){
+
+            int next = timeline.reveal(written, timeline.getLength() * frame / FRAMES, renderer, renderer);
+            assertTrue(next >= written);
+            written = next;
+        }
+        assertEquals(timeline.getSegmentCount(), written);
+    }
+
+    @Test
+    public void glyphRanges_coverEverySegmentInOrder() {
+
+        assertEquals(26, timeline.getGlyphCount());
+        assertEquals(0, timeline.getGlyphStart(0));
+
+        for(int glyph = 1; glyph < timeline.getGlyphCount(); glyph++)
+            assertEquals(timeline.getGlyphEnd(glyph - 1), timeline.getGlyphStart(glyph));
+
+        assertEquals(timeline.getSegmentCount(), timeline.getGlyphEnd(25));
+    }
+
+    @Test
+    public void seek_findsTheSameSegmentsAsRevealing() {
+
+        float length = timeline.getLength();
+        for(int step=0; step<=100; step++){
+
+            float drawn = length * step / 100;
+            int segments = timeline.reveal(0, drawn, renderer, renderer);
+
+            assertEquals(segments, timeline.getSegmentsAt(drawn));
+
+            int glyphs = 0;
+            while(glyphs < timeline.getGlyphCount() && timeline.getGlyphEnd(glyphs) <= segments)
+                glyphs++;
+            assertEquals(glyphs, timeline.getGlyphsAt(segments));
+        }
+    }
+
+    @Test
+    public void set_copiesEverySegmentAndGlyph() {
+
+        StrokeTimeline copy = new StrokeTimeline();
+        copy.set(timeline);
+
+        assertEquals(timeline.getSegmentCount(), copy.getSegmentCount());
+        assertEquals(timeline.getGlyphCount(), copy.getGlyphCount());
+        assertEquals(timeline.getLength(), copy.getLength(), 0);
+        assertEquals(timeline.getGlyphEnd(25), copy.getGlyphEnd(25));
+    }
+
+    @Test
+    public void bounds_holdEverySegmentOfTheGlyph() {
+
+        float[] bounds = new float[4];
+        float[] box = new float[4];
+        StrokeRenderer boxing = new StrokeRenderer() {
+            @Override
+            public void moveTo(float x, float y) {
+
+                lineTo(x, y);
+            }
+
+            @Override
+            public void lineTo(float x, float y) {
+
+                box[0] = Math.min(box[0], x);
+                box[1] = Math.min(box[1], y);
+                box[2] = Math.max(box[2], x);
+                box[3] = Math.max(box[3], y);
+            }
+
+            @Override
+            public void arcTo(float left, float top, float right, float bottom, float startAngle, float sweepAngle) {
+
+                lineTo(left, top);
+                lineTo(right, bottom);
+            }
+        };
+
+        for(int glyph = 0; glyph < timeline.getGlyphCount(); glyph++){
+
+            box[0] = box[1] = Float.MAX_VALUE;
+            box[2] = box[3] = -Float.MAX_VALUE;
+            timeline.drawRange(timeline.getGlyphStart(glyph), timeline.getGlyphEnd(glyph), boxing);
+
+            timeline.getBounds(glyph, bounds);
+            assertTrue(bounds[0] <= box[0] && bounds[1] <= box[1]);
+            assertTrue(bounds[2] >= box[2] && bounds[3] >= box[3]);
+
+            //the letters are laid out next to each other, so only the neighbours share space
+            assertTrue(timeline.intersects(glyph, box[0], box[1], box[2], box[3]));
+            assertFalse(timeline.intersects(glyph, bounds[2] + 1, bounds[1], bounds[2] + 2, bounds[3]));
+        }
+    }
+
+    @Test
+    public void reveal_doesNotAllocate() {
+
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        assumeTrue(threads.isThreadAllocatedMemorySupported());
+        threads.setThreadAllocatedMemoryEnabled(true);
+
+        long thread = Thread.currentThread().getId();
+
+        //warms up the stepping code and measures what reading the counter allocates by itself
+        playback();
+        long overhead = threads.getThreadAllocatedBytes(thread);
+        overhead = threads.getThreadAllocatedBytes(thread) - overhead;
+
+        long before = threads.getThreadAllocatedBytes(thread);
+        playback();
+        long allocated = threads.getThreadAllocatedBytes(thread) - before - overhead;
+
+        assertEquals(0, allocated);
+    }
+
+    private void playback() {
+
+        int written = 0;
+        for(int frame = 0; frame <= FRAMES; frame++){
+
+            //the eased stroke as the view writes it in order, and every letter as staggered
+            //writing draws it on its own
+            float drawnLength = timeline.easeStroke(timeline.getLength() * frame / FRAMES, Easing.EASE_IN_OUT);
+            written = timeline.reveal(written, drawnLength, renderer, renderer);
+            timeline.drawGlyph(frame % timeline.getGlyphCount(), (float) frame / FRAMES, Easing.EASE_OUT, renderer);
+        }
+    }
+
+    @Test
+    public void easeStroke_keepsTheEndsOfEveryStroke() {
+
+        for(int i=0; i<timeline.getSegmentCount(); i++){
+
+            if(timeline.startsStroke(i))
+                assertEquals(timeline.getStart(i), timeline.easeStroke(timeline.getStart(i), Easing.EASE_IN_OUT), 0.01f);
+        }
+
+        float length = timeline.getLength(), last = 0;
+        for(int step=0; step<=1000; step++){
+
+            float eased = timeline.easeStroke(length * step / 1000, Easing.EASE_IN);
+            assertTrue(eased >= last - 0.01f);
+            last = eased;
+        }
+        assertEquals(length, last, 0.01f);
+    }
+}
@@ -0,0 +1,227 @@
+package com.sarnava.textwriter.core;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class TextLayoutTest {
+
+    private final TextLayout layout = new TextLayout(50, 100, 30);
+
+    @Test
+    public void measure_addsLetterWidthsAndGaps() {
+
+        //D, U, N, K, I, R, K with a space b/w DUN and KIRK
+        float expected = 100 + 75 + 100 + 50 + 100 + 0 + 100 + 100 + 6 * 30;
+        assertEquals(expected, layout.measure("DUN KIRK"), 0.001f);
+    }
+
+    @Test
+    public void layout_centresTheText() {
+
+        StrokeTimeline timeline = new StrokeTimeline();
+        layout.layout("I", 400, 300, timeline);
+
+        float[] start = start(timeline);
+        assertEquals(200, start[0], 0.001f);
+        assertEquals(50, start[1], 0.001f);
+        assertEquals(200, timeline.getLength(), 0.001f);
+    }
+
+    @Test(expected = RuntimeException.class)
+    public void measure_rejectsLeadingWhitespace() {
+
+        layout.measure(" A");
+    }
+
+    @Test(expected = RuntimeException.class)
+    public void measure_rejectsUnknownCharacters() {
+
+        layout.measure("A\u00e9");
+    }
+
+    @Test
+    public void layout_wrapsAtSpacesToFitTheWidth() {
+
+        StrokeTimeline timeline = new StrokeTimeline();
+
+        //every word is 2*100 + 30 = 230 wide, two of them with a space need 230 + 50 + 30 + 230
+        TextLayout wrapping = new TextLayout(50, 100, 30, 20, TextLayout.Alignment.LEFT);
+
+        wrapping.layout("AB CD EF", 600, 1000, timeline);
+        assertEquals(2, wrapping.getLineCount());
+
+        wrapping.layout("AB CD EF", 200, 1000, timeline);
+        assertEquals(3, wrapping.getLineCount());
+
+        wrapping.layout("AB\nCD", 2000, 1000, timeline);
+        assertEquals(2, wrapping.getLineCount());
+    }
+
+    @Test
+    public void measure_breaksTheTextIntoLines() {
+
+        TextLayout wrapping = new TextLayout(50, 100, 30, 20, TextLayout.Alignment.LEFT);
+
+        assertEquals(230 + 50 + 30 + 230, wrapping.measureWidth("AB AB AB", 600), 0.001f);
+        assertEquals(2 * 200 + 20, wrapping.measureHeight("AB AB AB", 600), 0.001f);
+        assertEquals(200, wrapping.measureHeight("AB AB AB", Float.POSITIVE_INFINITY), 0.001f);
+    }
+
+    @Test
+    public void measure_makesRoomForDescenders() {
+
+        TextLayout wrapping = new TextLayout(50, 100, 30, 20, TextLayout.Alignment.LEFT);
+
+        //the tails of g, y and p reach half a vertical bound below the letters, a comma a quarter
+        assertEquals(150, wrapping.getGlyph('g').getBottom(), 0.001f);
+        assertEquals(125, wrapping.getGlyph(',').getBottom(), 0.001f);
+        assertEquals(100, wrapping.getGlyph('A').getBottom(), 0.001f);
+
+        assertEquals(250, wrapping.measureHeight("gyp", Float.POSITIVE_INFINITY), 0.001f);
+        assertEquals(250 + 20 + 200, wrapping.measureHeight("gyp\nAB", Float.POSITIVE_INFINITY), 0.001f);
+        assertEquals(200 + 20 + 250 + 10, wrapping.setInset(5).measureHeight("AB\ngyp", Float.POSITIVE_INFINITY), 0.001f);
+
+        //laid out in the height measured, the tails end at the bottom edge
+        StrokeTimeline timeline = new StrokeTimeline();
+        wrapping.layout("AB\ngyp", 400, 480, timeline);
+        assertEquals(475, bottom(timeline), 0.001f);
+        assertEquals(480, wrapping.getBottom(), 0.001f);
+
+        //a line appended after descenders starts below them, A starts at its bottom left
+        wrapping.append("\nA", 400, timeline);
+        int last = timeline.getGlyphStart(timeline.getGlyphCount() - 1);
+        assertEquals(475 + 20 + 200, start(timeline, last)[1], 0.001f);
+        assertEquals(475 + 20 + 200 + 5, wrapping.getBottom(), 0.001f);
+    }
+
+    @Test
+    public void fit_findsTheLargestSizeThatFits() {
+
+        TextLayout wrapping = new TextLayout(50, 100, 30, 20, TextLayout.Alignment.LEFT);
+
+        //AB is 200*scale + 30 wide and 200*scale tall
+        assertEquals(2.15f, wrapping.fit("AB", 460, 1000), 0.001f);
+        assertEquals(1.5f, wrapping.fit("AB", 2000, 300), 0.001f);
+
+        //at the size found the text still fits
+        float scale = wrapping.fit("AB CD EF", 500, 500);
+        TextLayout fitted = new TextLayout(50 * scale, 100 * scale, 30, 20, TextLayout.Alignment.LEFT);
+        assertTrue(fitted.measureWidth("AB CD EF", 500) <= 500);
+        assertTrue(fitted.measureHeight("AB CD EF", 500) <= 500);
+
+        assertEquals(0, wrapping.fit("AB", 20, 1000), 0.001f);
+    }
+
+    @Test
+    public void fit_keepsDescendersInside() {
+
+        TextLayout wrapping = new TextLayout(50, 100, 30, 20, TextLayout.Alignment.LEFT).setInset(5);
+
+        //gyp is 250*scale tall with its tails, AB only 200*scale
+        assertEquals(1.2f, wrapping.fit("gyp", 2000, 310), 0.001f);
+        assertEquals(1.5f, wrapping.fit("AB", 2000, 310), 0.001f);
+
+        //at the size found the tails of every line still fit
+        float scale = wrapping.fit("jog\ngyp, gyp", 500, 500);
+        TextLayout fitted = new TextLayout(50 * scale, 100 * scale, 30, 20, TextLayout.Alignment.LEFT).setInset(5);
+        assertTrue(fitted.measureHeight("jog\ngyp, gyp", 500) <= 500);
+
+        StrokeTimeline timeline = new StrokeTimeline();
+        fitted.layout("jog\ngyp, gyp", 500, 500, timeline);
+        assertTrue(bottom(timeline) <= 495);
+    }
+
+    @Test
+    public void layout_alignsTheLines() {
+
+        StrokeTimeline timeline = new StrokeTimeline();
+
+        new TextLayout(50, 100, 30, 20, TextLayout.Alignment.LEFT).layout("I", 400, 300, timeline);
+        assertEquals(0, start(timeline)[0], 0.001f);
+
+        new TextLayout(50, 100, 30, 20, TextLayout.Alignment.RIGHT).layout("I", 400, 300, timeline);
+        assertEquals(400, start(timeline)[0], 0.001f);
+        //an inset of half the stroke keeps the strokes at the edges from being cut off
+        new TextLayout(50, 100, 30, 20, TextLayout.Alignment.LEFT).setInset(5).layout("I", 400, 300, timeline);
+        assertEquals(5, start(timeline)[0], 0.001f);
+
+        new TextLayout(50, 100, 30, 20, TextLayout.Alignment.RIGHT).setInset(5).layout("I", 400, 300, timeline);
+        assertEquals(395, start(timeline)[0], 0.001f);
+    }
+
+    @Test
+    public void append_continuesTheLastLineWithoutMovingIt() {
+
+        StrokeTimeline timeline = new StrokeTimeline();
+        TextLayout appending = new TextLayout(50, 100, 30, 20, TextLayout.Alignment.LEFT);
+
+        appending.layout("I", 400, 300, timeline);
+        appending.append(" I", 150, timeline);
+
+        //the space is 50 wide and the letter after it is a gap away
+        assertEquals(0, start(timeline, 0)[0], 0.001f);
+        assertEquals(80, start(timeline, 1)[0], 0.001f);
+        assertEquals(50, start(timeline, 1)[1], 0.001f);
+
+        //the third letter of the word doesn't fit anymore and starts a line of its own
+        appending.append("III", 150, timeline);
+        assertEquals(140, start(timeline, 3)[0], 0.001f);
+        assertEquals(0, start(timeline, 4)[0], 0.001f);
+        assertEquals(270, start(timeline, 4)[1], 0.001f);
+        assertEquals(2, appending.getLineCount());
+    }
+
+    @Test(expected = RuntimeException.class)
+    public void append_needsALayout() {
+
+        layout.append("A", 400, new StrokeTimeline());
+    }
+
+    private static float bottom(StrokeTimeline timeline) {
+
+        final float[] bottom = {Float.NEGATIVE_INFINITY};
+        timeline.drawRange(0, timeline.getSegmentCount(), new StrokeRenderer() {
+            @Override
+            public void moveTo(float x, float y) {
+
+                bottom[0] = Math.max(bottom[0], y);
+            }
+
+            @Override
+            public void lineTo(float x, float y) {
+
+                bottom[0] = Math.max(bottom[0], y);
+            }
+
+            @Override
+            public void arcTo(float left, float top, float right, float bottom, float startAngle, float sweepAngle) {}
+        });
+        return bottom[0];
+    }
+
+    private static float[] start(StrokeTimeline timeline) {
+
+        return start(timeline, 0);
+    }
+
+    private static float[] start(StrokeTimeline timeline, int index) {
+
+        final float[] start = new float[2];
+        timeline.draw(index, 0, true, new StrokeRenderer() {
+            @Override
+            public void moveTo(float x, float y) {
+
+                start[0] = x;
+                start[1] = y;
+            }
+
+            @Override
+            public void lineTo(float x, float y) {}
+
+            @Override
+            public void arcTo(float left, float top, float right, float bottom, float startAngle, float sweepAngle) {}
+        });
+        return start;
+    }
+}
@@ -0,0 +1,89 @@
+package com.sarnava.textwriter.core;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class VectorWriterTest {
+
+    @Test
+    public void pathData_writesLinesAndArcs() {
+
+        StringBuilder pathData = new StringBuilder();
+        PathDataRenderer renderer = new PathDataRenderer(pathData);
+
+        renderer.moveTo(0, 0.5f);
+        renderer.lineTo(10.125f, -3);
+        renderer.arcTo(0, 0, 20, 10, 0, 90);
+
+        assertEquals("M0 0.5 L10.13 -3 A10 5 0 0 1 10 10", pathData.toString());
+    }
+
+    @Test
+    public void writeSvg_animatesEveryStroke() throws Exception {
+
+        StrokeTimeline timeline = new StrokeTimeline();
+        new TextLayout(50, 100, 30).layout("HI", 400, 300, timeline);
+
+        StringBuilder svg = new StringBuilder();
+        new VectorWriter(400, 300).setColor(0xFFFF0000).setDuration(1000).writeSvg(timeline, svg);
+
+        //three strokes of H and one of I
+        assertEquals(4, count(svg, "<path "));
+        assertEquals(4, count(svg, "<animate "));
+        assertTrue(svg.indexOf("stroke=\"#FF0000\"") > 0);
+        assertTrue(svg.toString().endsWith("</svg>\n"));
+    }
+
+    @Test
+    public void writeAnimatedVector_targetsEveryStroke() throws Exception {
+
+        StrokeTimeline timeline = new StrokeTimeline();
+        new TextLayout(50, 100, 30).layout("HI", 400, 300, timeline);
+
+        StringBuilder xml = new StringBuilder();
+        new VectorWriter(400, 300).setDuration(1000).writeAnimatedVector(timeline, xml);
+
+        assertEquals(4, count(xml, "<path"));
+        assertEquals(4, count(xml, "<target "));
+        assertTrue(xml.indexOf("android:strokeColor=\"#FF000000\"") > 0);
+    }
+
+    @Test
+    public void write_timesTheStrokesLikeThePlayer() throws Exception {
+
+        StrokeTimeline timeline = new StrokeTimeline();
+        new TextLayout(50, 100, 30).layout("HI", 400, 300, timeline);
+
+        //one after the other I starts once H is done, all at once it starts right away
+        StringBuilder svg = new StringBuilder();
+        new VectorWriter(400, 300).setDuration(1000).writeSvg(timeline, svg);
+        assertEquals(1, count(svg, "begin=\"0ms\""));
+
+        svg.setLength(0);
+        new VectorWriter(400, 300).setDuration(1000).setStagger(Stagger.ALL_AT_ONCE).writeSvg(timeline, svg);
+        assertEquals(2, count(svg, "begin=\"0ms\""));
+
+        //an eased pen is written as a curve instead of at a constant speed
+        svg.setLength(0);
+        new VectorWriter(400, 300).setDuration(1000).setStrokeEasing(Easing.EASE_IN_OUT).writeSvg(timeline, svg);
+        assertEquals(4, count(svg, "keyTimes="));
+        assertEquals(0, count(svg, " from="));
+
+        StringBuilder xml = new StringBuilder();
+        new VectorWriter(400, 300).setDuration(1000).setEasing(Easing.EASE_IN).setDensity(2).writeAnimatedVector(timeline, xml);
+        assertEquals(4, count(xml, "<pathInterpolator "));
+        assertEquals(0, count(xml, "linear_interpolator"));
+        assertTrue(xml.indexOf("android:width=\"200dp\"") > 0);
+        assertTrue(xml.indexOf("android:viewportWidth=\"400\"") > 0);
+    }
+
+    private static int count(CharSequence text, String part) {
+
+        int count = 0;
+        for(int i = text.toString().indexOf(part); i >= 0; i = text.toString().indexOf(part, i + 1))
+            count++;
+        return count;
+    }
+}
@@ -0,0 +1,67 @@
+package com.sarnava.textwriter.core;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class WritingClockTest {
+
+    private final WritingClock clock = new WritingClock();
+
+    @Test
+    public void start_continuesARestoredReverseFromNothingWritten() {
+
+        //an un-written reversed text that is laid out again for a new size
+        clock.restore(0, true);
+        assertTrue(clock.start(1000, true));
+
+        assertEquals(0, clock.getProgress(), 0);
+        assertEquals(1, clock.tick(5000), 0);
+        assertEquals(0, clock.getProgress(), 0);
+    }
+
+    @Test
+    public void start_keepsTheDirectionOfARestoredPingPong() {
+
+        clock.restore(0.4f, true);
+        assertTrue(clock.start(1000, false));
+        assertTrue(clock.isReversing());
+
+        clock.tick(5000);
+        assertEquals(0.4f, clock.getProgress(), 0.001f);
+        clock.tick(5100);
+        assertEquals(0.3f, clock.getProgress(), 0.001f);
+
+        //the pass ends and the next one writes again, with what the frame overshot elapsed
+        clock.tick(5500);
+        clock.turn();
+        assertFalse(clock.isReversing());
+        clock.tick(5600);
+        assertEquals(0.2f, clock.getProgress(), 0.001f);
+    }
+
+    @Test
+    public void start_beginsAPassWithoutARestoredProgress() {
+
+        assertEquals(0, clock.getProgress(), 0);
+        assertFalse(clock.start(1000, true));
+
+        clock.tick(5000);
+        assertEquals(1, clock.getProgress(), 0);
+        clock.tick(5250);
+        assertEquals(0.75f, clock.getProgress(), 0.001f);
+    }
+
+    @Test
+    public void stretch_continuesFromTheProgress() {
+
+        clock.start(1000, false);
+        clock.tick(5000);
+        clock.tick(5500);
+
+        clock.stretch(2000, 0.25f);
+        assertEquals(0.25f, clock.getProgress(), 0.001f);
+        clock.tick(5700);
+        assertEquals(0.35f, clock.getProgress(), 0.001f);
+    }
+}
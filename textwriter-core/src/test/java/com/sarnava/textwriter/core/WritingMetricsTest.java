@@ -0,0 +1,73 @@
+package com.sarnava.textwriter.core;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+
+public class WritingMetricsTest {
+
+    private static final long FRAME = 16000000L;
+
+    @Test
+    public void recordFrame_keepsTheLatestFramesAndCountsTheLateOnes() {
+
+        WritingMetrics metrics = new WritingMetrics(4);
+        metrics.begin(0, FRAME);
+
+        long time = 0;
+        for(int frame=0; frame<6; frame++){
+
+            //the fourth frame comes three frames after the one before
+            time += frame == 3 ? 3*FRAME : FRAME;
+            metrics.recordFrame(time, 1000000L * frame, frame);
+            metrics.recordDraw(3000000L);
+
+            //a redraw without a new frame isn't recorded
+            metrics.recordDraw(40000000L);
+        }
+        metrics.end(time);
+
+        assertEquals(6, metrics.getFrameCount());
+        assertEquals(4, metrics.getSize());
+        assertEquals(2, metrics.getSegmentCount(0));
+        assertEquals(5000000L, metrics.getUpdateNanos(3));
+        assertEquals(3000000L, metrics.getDrawNanos(3));
+        assertEquals(3*FRAME, metrics.getIntervalNanos(1));
+        assertEquals(1, metrics.getLateFrames());
+        assertEquals(2, metrics.getDroppedFrames());
+        assertEquals(8*FRAME, metrics.getTotalNanos());
+
+        //0, 1, 2, 3, 4 and 5 ms of update time, 3 ms of draw time each
+        int[] histogram = metrics.getUpdateHistogram(new int[WritingMetrics.getBucketCount()]);
+        assertEquals(1, histogram[0]);
+        assertEquals(1, histogram[2]);
+        assertEquals(1, histogram[3]);
+        assertEquals(2, histogram[4]);
+        assertEquals(1, histogram[5]);
+        assertEquals(6, metrics.getDrawHistogram(histogram)[4]);
+    }
+
+    @Test
+    public void pause_leavesThePausedTimeOut() {
+
+        WritingMetrics metrics = new WritingMetrics(4);
+        metrics.begin(0, FRAME);
+
+        metrics.recordFrame(FRAME, 0, 0);
+        metrics.pause(FRAME);
+
+        //a second of pause, the first frame after it comes on time
+        metrics.resume(FRAME + 1000000000L);
+        metrics.recordFrame(2*FRAME + 1000000000L, 0, 0);
+
+        //the clock moved without a pause
+        metrics.resume(10*FRAME + 1000000000L);
+        metrics.recordFrame(11*FRAME + 1000000000L, 0, 0);
+        metrics.end(11*FRAME + 1000000000L);
+
+        assertEquals(FRAME, metrics.getIntervalNanos(1));
+        assertEquals(FRAME, metrics.getIntervalNanos(2));
+        assertEquals(0, metrics.getLateFrames());
+        assertEquals(11*FRAME, metrics.getTotalNanos());
+    }
+}
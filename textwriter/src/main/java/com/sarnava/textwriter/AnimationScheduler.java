@@ -0,0 +1,158 @@
+
+/*
+ *
+ * MIT License
+ *
+ * Copyright (c) 2020 Sarnava Konar
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.sarnava.textwriter;
+
+import android.os.Build;
+import android.os.Handler;
+import android.os.Looper;
+import android.view.Choreographer;
+
+import java.util.ArrayList;
+
+/**
+ * Ticks every running TextWriter from a single frame callback on the main thread. A TextWriter
+ * is ticked only while it is attached and shown, so the cost per frame grows with the visible
+ * views instead of with all the inflated ones
+ */
+final class AnimationScheduler {
+
+    private static final long FALLBACK_FRAME_DELAY = 16;
+
+    private static AnimationScheduler instance;
+
+    private final ArrayList<TextWriter> writers = new ArrayList<>();
+
+    //the writers of the current frame, a writer can start or stop another one while it is ticked
+    private final ArrayList<TextWriter> ticking = new ArrayList<>();
+
+    private boolean scheduled;
+    private Object frameCallback;
+    private Handler handler;
+    private final Runnable frameRunnable = new Runnable() {
+        @Override
+        public void run() {
+
+            doFrame(System.nanoTime());
+        }
+    };
+
+    private AnimationScheduler() {}
+
+    /**
+     * @return the scheduler of the main thread, it must be called only from the main thread
+     */
+    static AnimationScheduler getInstance(){
+
+        if(instance == null)
+            instance = new AnimationScheduler();
+
+        return instance;
+    }
+
+    void add(TextWriter writer){
+
+        if(!writers.contains(writer))
+            writers.add(writer);
+
+        scheduleFrame();
+    }
+
+    void remove(TextWriter writer){
+
+        writers.remove(writer);
+    }
+
+    /**
+     * @return whether the writer gets the next frame
+     */
+    boolean contains(TextWriter writer){
+
+        return writers.contains(writer);
+    }
+
+    private void scheduleFrame(){
+
+        if(scheduled)
+            return;
+
+        scheduled = true;
+
+        //Choreographer delivers the frames in sync with the display refresh rate, the older
+        //versions fall back to a handler tick of the same cadence
+        if(Build.VERSION.SDK_INT >= Build.VERSION_CODES.JELLY_BEAN) {
+
+            if(frameCallback == null)
+                frameCallback = new VsyncCallback(this);
+
+            Choreographer.getInstance().postFrameCallback((Choreographer.FrameCallback) frameCallback);
+        }
+        else {
+
+            if(handler == null)
+                handler = new Handler(Looper.getMainLooper());
+
+            handler.postDelayed(frameRunnable, FALLBACK_FRAME_DELAY);
+        }
+    }
+
+    private void doFrame(long frameTimeNanos){
+
+        scheduled = false;
+
+        ticking.clear();
+        for(int i=0; i<writers.size(); i++)
+            ticking.add(writers.get(i));
+
+        //a writer that doesn't need another frame leaves until it is added again
+        for(int i=0; i<ticking.size(); i++){
+
+            TextWriter writer = ticking.get(i);
+            if(!writer.doFrame(frameTimeNanos))
+                writers.remove(writer);
+        }
+        ticking.clear();
+
+        if(!writers.isEmpty())
+            scheduleFrame();
+    }
+
+    private static class VsyncCallback implements Choreographer.FrameCallback {
+
+        private final AnimationScheduler scheduler;
+
+        VsyncCallback(AnimationScheduler scheduler) {
+
+            this.scheduler = scheduler;
+        }
+
+        @Override
+        public void doFrame(long frameTimeNanos) {
+
+            scheduler.doFrame(frameTimeNanos);
+        }
+    }
+}
@@ -0,0 +1,134 @@
+
+/*
+ *
+ * MIT License
+ *
+ * Copyright (c) 2020 Sarnava Konar
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.sarnava.textwriter;
+
+import android.util.LruCache;
+
+import com.sarnava.textwriter.core.StrokeTimeline;
+import com.sarnava.textwriter.core.TextLayout;
+
+/**
+ * Keeps the timelines of recently laid out texts, so a view that is bound to the same text again,
+ * like a recycled item of a list, only copies the timeline instead of laying the text out again
+ */
+final class LayoutCache {
+
+    //the timelines of all the views together, weighed by their number of segments
+    private static final int CACHE_SIZE = 32 * 1024;
+
+    private static final LruCache<Key, StrokeTimeline> CACHE = new LruCache<Key, StrokeTimeline>(CACHE_SIZE) {
+
+        @Override
+        protected int sizeOf(Key key, StrokeTimeline timeline) {
+
+            return timeline.getSegmentCount() + 1;
+        }
+    };
+
+    private LayoutCache() {}
+
+    /**
+     * Copies the cached timeline of the layout to {@param timeline}
+     *
+     * @return false if the layout isn't cached
+     */
+    static boolean get(Key key, StrokeTimeline timeline){
+
+        StrokeTimeline cached = CACHE.get(key);
+
+        if(cached == null)
+            return false;
+
+        timeline.set(cached);
+        return true;
+    }
+
+    static void put(Key key, StrokeTimeline timeline){
+
+        StrokeTimeline copy = new StrokeTimeline();
+        copy.set(timeline);
+        CACHE.put(key, copy);
+    }
+
+    /**
+     * Everything the layout of a text depends on
+     */
+    static final class Key {
+
+        private final String text;
+        private final Object glyphs;
+        private final float horizontalBound, verticalBound, gap, lineSpacing, inset, width, height;
+        private final TextLayout.Alignment alignment;
+
+        /**
+         * @param glyphs the registry or the typeface the letters come from
+         */
+        Key(String text, Object glyphs, float horizontalBound, float verticalBound, float gap,
+            float lineSpacing, TextLayout.Alignment alignment, float inset, float width, float height) {
+
+            this.text = text;
+            this.glyphs = glyphs;
+            this.horizontalBound = horizontalBound;
+            this.verticalBound = verticalBound;
+            this.gap = gap;
+            this.lineSpacing = lineSpacing;
+            this.alignment = alignment;
+            this.inset = inset;
+            this.width = width;
+            this.height = height;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+
+            if(!(o instanceof Key))
+                return false;
+
+            Key key = (Key) o;
+            return text.equals(key.text) && glyphs.equals(key.glyphs) && alignment == key.alignment
+                    && horizontalBound == key.horizontalBound && verticalBound == key.verticalBound
+                    && gap == key.gap && lineSpacing == key.lineSpacing && inset == key.inset
+                    && width == key.width && height == key.height;
+        }
+
+        @Override
+        public int hashCode() {
+
+            int hash = text.hashCode();
+            hash = 31 * hash + glyphs.hashCode();
+            hash = 31 * hash + alignment.hashCode();
+            hash = 31 * hash + Float.floatToIntBits(horizontalBound);
+            hash = 31 * hash + Float.floatToIntBits(verticalBound);
+            hash = 31 * hash + Float.floatToIntBits(gap);
+            hash = 31 * hash + Float.floatToIntBits(lineSpacing);
+            hash = 31 * hash + Float.floatToIntBits(inset);
+            hash = 31 * hash + Float.floatToIntBits(width);
+            hash = 31 * hash + Float.floatToIntBits(height);
+            return hash;
+        }
+    }
+}
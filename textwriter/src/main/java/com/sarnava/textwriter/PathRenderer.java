@@ -0,0 +1,83 @@
+
+/*
+ *
+ * MIT License
+ *
+ * Copyright (c) 2020 Sarnava Konar
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.sarnava.textwriter;
+
+import android.graphics.Paint;
+import android.graphics.Path;
+import android.graphics.RectF;
+
+import com.sarnava.textwriter.core.Pen;
+import com.sarnava.textwriter.core.StrokeRenderer;
+
+import java.util.Locale;
+
+/**
+ * Adds the strokes of the written text to a {@link Path}
+ */
+final class PathRenderer implements StrokeRenderer {
+
+    private final Path path;
+    private final RectF rect = new RectF();
+
+    PathRenderer(Path path) {
+
+        this.path = path;
+    }
+
+    /**
+     * @return a paint that draws the strokes with the {@link Pen}, like the vector documents do
+     */
+    static Paint createPaint(){
+
+        Paint paint = new Paint(Paint.ANTI_ALIAS_FLAG);
+        paint.setStyle(Paint.Style.STROKE);
+        paint.setColor(Pen.DEFAULT_COLOR);
+        paint.setStrokeWidth(Pen.DEFAULT_WIDTH);
+        paint.setStrokeCap(Paint.Cap.valueOf(Pen.CAP.toUpperCase(Locale.US)));
+        paint.setStrokeJoin(Paint.Join.valueOf(Pen.JOIN.toUpperCase(Locale.US)));
+        return paint;
+    }
+
+    @Override
+    public void moveTo(float x, float y) {
+
+        path.moveTo(x, y);
+    }
+
+    @Override
+    public void lineTo(float x, float y) {
+
+        path.lineTo(x, y);
+    }
+
+    @Override
+    public void arcTo(float left, float top, float right, float bottom, float startAngle, float sweepAngle) {
+
+        rect.set(left, top, right, bottom);
+        path.arcTo(rect, startAngle, sweepAngle, false);
+    }
+}
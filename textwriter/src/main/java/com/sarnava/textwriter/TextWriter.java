@@ -26,33 +26,100 @@
 
 package com.sarnava.textwriter;
 
+import android.animation.TimeInterpolator;
+import android.annotation.TargetApi;
 import android.content.Context;
+import android.graphics.Bitmap;
 import android.graphics.Canvas;
 import android.graphics.Color;
 import android.graphics.Paint;
 import android.graphics.Path;
-import android.graphics.RectF;
-import android.text.TextUtils;
+import android.graphics.PorterDuff;
+import android.graphics.RecordingCanvas;
+import android.graphics.RenderNode;
+import android.graphics.Typeface;
+import android.os.Build;
+import android.os.Handler;
+import android.os.Looper;
+import android.os.Parcel;
+import android.os.Parcelable;
 import android.util.AttributeSet;
-import android.util.Log;
 import android.view.View;
 
 import androidx.annotation.Nullable;
 
+import com.sarnava.textwriter.core.Easing;
+import com.sarnava.textwriter.core.GlyphRegistry;
+import com.sarnava.textwriter.core.Stagger;
+import com.sarnava.textwriter.core.StrokePlayer;
+import com.sarnava.textwriter.core.StrokeTimeline;
+import com.sarnava.textwriter.core.TextLayout;
+import com.sarnava.textwriter.core.WritingClock;
+import com.sarnava.textwriter.core.WritingMetrics;
+
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+
 public class TextWriter extends View {
 
+    //the number of latest frames the metrics keep
+    private static final int METRICS_CAPACITY = 256;
+
+    private static final Handler MAIN_HANDLER = new Handler(Looper.getMainLooper());
+    private static Executor layoutExecutor;
+
     private Paint paint;
-    private Path path;
-    private int DELAY=20, step, currentPosition;
+    private Path path, scratch;
+    private PathRenderer pathRenderer, scratchRenderer;
+    private StrokeTimeline timeline;
+    private Bitmap cacheBitmap;
+    private Canvas cacheCanvas;
+    private int DELAY=20;
+    private long duration;
     private float screenWidth, screenHeight;
-    private float VERTICAL_BOUND=100f, HORIZONTAL_BOUND, GAP = 50f;
-    private float x, y, sweepAngle;
-    private float centreX, centreY;
-    private boolean hasDrawingStarted, startAnimationCalled;
+    private float VERTICAL_BOUND=100f, HORIZONTAL_BOUND, GAP = 50f, LINE_SPACING = 50f;
+    private float verticalBound = VERTICAL_BOUND;
+    private boolean pendingStart, cacheValid, autoFit;
     private String text;
-    private char currentCharacter;
     private Configuration config = Configuration.RECTANGLE;
+    private TextLayout.Alignment alignment = TextLayout.Alignment.CENTER;
+    private GlyphRegistry glyphRegistry = GlyphRegistry.getDefault();
+    private Typeface typeface;
+    private TextLayout layout;
+
+    //whether text was appended to the layout since it was laid out
+    private boolean appended;
+    private PreparedLayout prepared;
+    private PrepareCallback pendingPrepareCallback;
+    private boolean pendingPrepare;
+    private int prepareGeneration;
+    private boolean pendingPause;
+    private final StrokePlayer player = new StrokePlayer();
+    private final ArrayDeque<QueuedText> queue = new ArrayDeque<>();
+    private QueuedText current;
+    private boolean queueLooping;
+    private Playback playback = Playback.FORWARD;
+    private final WritingClock clock = new WritingClock();
+    private long holdNanos, holdStart = -1;
+    private StrokeTimeline outgoingTimeline;
+    private Path outgoing;
+    private PathRenderer outgoingRenderer;
+    private Paint outgoingPaint;
+    private Transition outgoingTransition;
+    private long outgoingStart, outgoingNanos;
+    private int outgoingAlpha;
+    private RenderMode renderMode = RenderMode.SOFTWARE;
+    private RenderNodeCache renderNodeCache;
+    private boolean cachedInNode;
+    private final float[] letterBounds = new float[4];
+    private State state = State.IDLE;
     private Listener listener;
+    private MetricsListener metricsListener;
+    private WritingMetrics metrics;
+    private boolean metricsDone;
 
     public TextWriter(Context context) {
         super(context);
@@ -81,15 +148,48 @@ public class TextWriter extends View {
         Configuration(int config) {}
     }
 
+    /**
+     * The lifecycle of the writing animation. Only a {@link #RUNNING} view schedules new frames,
+     * in every other state it is redrawn only when something visible changes
+     */
+    public enum State{
+
+        //startAnimation() has not been called yet or is waiting for the view to be laid out
+        IDLE,
+        //letters are being written
+        RUNNING,
+        //writing has been halted by pause() and can be continued by resume()
+        PAUSED,
+        //the last letter has been written
+        FINISHED
+    }
+
+    /**
+     * How the letters that are written completely get cached, so that they don't have to be
+     * drawn again every frame
+     */
+    public enum RenderMode{
+
+        //the letters are flattened into an offscreen bitmap
+        SOFTWARE,
+        //the letters are recorded into a RenderNode so the GPU reuses their display list, falls
+        //back to SOFTWARE below Android 10 or when the view isn't hardware accelerated. A canvas
+        //that isn't, like the one of a bitmap the view is drawn into, gets the paths instead
+        HARDWARE
+    }
+
     private void init(@Nullable AttributeSet attrs){
 
-        paint = new Paint(Paint.ANTI_ALIAS_FLAG);
-        paint.setStyle(Paint.Style.STROKE);
-        paint.setStrokeWidth(10);
-        paint.setStrokeCap(Paint.Cap.ROUND);
-        paint.setColor(Color.BLACK);
+        paint = PathRenderer.createPaint();
 
         path = new Path();
+        pathRenderer = new PathRenderer(path);
+        scratch = new Path();
+        scratchRenderer = new PathRenderer(scratch);
+        timeline = new StrokeTimeline();
+        outgoing = new Path();
+        outgoingRenderer = new PathRenderer(outgoing);
+        outgoingPaint = new Paint(paint);
     }
 
     /**
@@ -100,6 +200,8 @@ public class TextWriter extends View {
     public TextWriter setColor(int color){
 
         paint.setColor(color);
+        cacheValid = false;
+        invalidate();
         return this;
     }
 
@@ -111,14 +213,17 @@ public class TextWriter extends View {
     public TextWriter setWidth(float width){
 
         paint.setStrokeWidth(width);
+        cacheValid = false;
+        invalidate();
         return this;
     }
 
     /**
-     * {@link #invalidate()} is called after {@param delay} milliseconds. More the value of delay,
-     * more time it will take to finish drawing
+     * The pen moves by half the size of a letter every {@param delay} milliseconds. More the value
+     * of delay, more time it will take to finish drawing. Ignored if a duration is set through
+     * {@link #setDuration(long)}
      *
-     * @param delay the duration in milliseconds to delay the invalidation by
+     * @param delay the time in milliseconds the pen takes to move by half the letter size
      */
     public TextWriter setDelay(int delay){
 
@@ -126,6 +231,19 @@ public class TextWriter extends View {
         return this;
     }
 
+    /**
+     * Sets the total time it takes to write the whole text, regardless of its length. Drawing
+     * progress is derived from the elapsed time, so the writing finishes on time even if frames
+     * are dropped
+     *
+     * @param duration the duration in milliseconds, 0 to derive it from {@link #setDelay(int)}
+     */
+    public TextWriter setDuration(long duration){
+
+        this.duration = duration;
+        return this;
+    }
+
     /**
      * More the size, more bigger will be the drawing of letters and thereby the overall drawing
      *
@@ -137,6 +255,20 @@ public class TextWriter extends View {
         return this;
     }
 
+    /**
+     * Picks the largest size of the letters at which the whole text fits the view instead of the
+     * size factor, the letter and line spacing stay as they are. The size factor only sets the
+     * size the letters are measured at, a view with wrap_content takes the size it is given
+     *
+     * @param autoFit true to fit the text to the view
+     */
+    public TextWriter setAutoFit(boolean autoFit){
+
+        this.autoFit = autoFit;
+        requestLayout();
+        return this;
+    }
+
     /**
      * Sets the gap in b/w two successive letters
      *
@@ -149,1739 +281,1772 @@ public class TextWriter extends View {
     }
 
     /**
-     * Sets the configuration/shape of the drawing based on {@link Configuration} selected
+     * Sets the gap in b/w two successive lines, the text is broken into lines at the spaces when
+     * it doesn't fit the width of the view
      *
-     * @param config Square, Rectangle or Intermediate
+     * @param spacing the distance in float
      */
-    public TextWriter setConfig(Configuration config){
+    public TextWriter setLineSpacing(float spacing){
 
-        this.config = config;
+        LINE_SPACING = spacing;
         return this;
     }
 
     /**
-     * This is the input text that needs to be drawn
+     * Sets the horizontal alignment of the lines within the view, centred by default
      *
-     * @param text the input string
+     * @param alignment Left, Center or Right
      */
-    public TextWriter setText(String text){
+    public TextWriter setAlignment(TextLayout.Alignment alignment){
 
-        this.text = text;
+        this.alignment = alignment;
         return this;
     }
 
     /**
-     * Sets the {@link Listener} for getting callback after finishing drawing
+     * Sets the letters that can be written, {@link GlyphRegistry#getDefault()} by default which
+     * has the uppercase and lowercase letters, the digits and the common punctuation marks
      *
-     * @param listener {@link Listener}
+     * @param registry {@link GlyphRegistry}
      */
-    public TextWriter setListener(Listener listener){
+    public TextWriter setGlyphRegistry(GlyphRegistry registry){
 
-        this.listener = listener;
+        this.glyphRegistry = registry;
         return this;
     }
 
-    @Override
-    protected void onDraw(Canvas canvas) {
+    /**
+     * Writes the outlines of the letters of a font instead of the glyphs of the registry, so any
+     * text the font covers can be written. The capitals of the font are as tall as the letters
+     * would be, null goes back to the registry
+     *
+     * @param typeface {@link Typeface}
+     */
+    public TextWriter setTypeface(Typeface typeface){
 
-        screenWidth = getWidth();
-        screenHeight = getHeight();
+        this.typeface = typeface;
+        return this;
+    }
 
-        if(!hasDrawingStarted) {
+    /**
+     * Sets how the letters share the writing time, {@link Stagger#SEQUENTIAL} by default. With
+     * any other stagger several letters are written at once, so a long text finishes sooner at
+     * the same pace or fits a fixed duration without rushing every letter
+     *
+     * @param stagger {@link Stagger}
+     */
+    public TextWriter setStagger(Stagger stagger){
 
-            if(startAnimationCalled)
-                startAnimation();
+        player.setStagger(stagger);
+        return this;
+    }
 
-            return;
-        }
+    /**
+     * Eases the writing of the whole text, linear by default which moves the pen at a constant
+     * speed since the progress follows the true length of the strokes. With a stagger the time
+     * of every letter follows the eased time of the whole text
+     *
+     * @param easing {@link Easing}, mapping 0 to 0 and 1 to 1 without going back in between
+     */
+    public TextWriter setEasing(Easing easing){
 
-        continueDrawing();
+        player.setEasing(easing);
+        return this;
+    }
 
-        canvas.drawPath(path, paint);
+    /**
+     * Eases the writing of the whole text with a {@link TimeInterpolator}
+     *
+     * @see #setEasing(Easing)
+     */
+    public TextWriter setEasingInterpolator(TimeInterpolator interpolator){
 
-        postInvalidateDelayed(DELAY);
+        return setEasing(new InterpolatorEasing(interpolator));
     }
 
-    public void startAnimation() throws RuntimeException {
+    /**
+     * Eases the writing of every stroke, linear by default. A stroke takes the same time as it
+     * would without the easing, only the pen changes its speed along it
+     *
+     * @param easing {@link Easing}, mapping 0 to 0 and 1 to 1 without going back in between
+     */
+    public TextWriter setStrokeEasing(Easing easing){
 
-        startAnimationCalled = true;
+        player.setStrokeEasing(easing);
+        return this;
+    }
 
-        //incase onDraw didn't finish calculating screenWidth and screenHeight call invalidate to
-        //ensure that we get their value
-        if(screenWidth <= 0 || screenHeight <= 0) {
-            Log.e("boom", "called invalidate() to calculate screenWidth and screenHeight");
-            invalidate();
-            return;
-        }
+    /**
+     * Eases the writing of every stroke with a {@link TimeInterpolator}
+     *
+     * @see #setStrokeEasing(Easing)
+     */
+    public TextWriter setStrokeEasingInterpolator(TimeInterpolator interpolator){
 
-        if(TextUtils.isEmpty(text)){
-            throw new RuntimeException("Text is null or empty");
-        }
+        return setStrokeEasing(new InterpolatorEasing(interpolator));
+    }
 
-        //sets the HORIZONTAL_BOUND based on the configuration
-        if(config == Configuration.SQUARE)
-            HORIZONTAL_BOUND = VERTICAL_BOUND;
-        else if(config == Configuration.RECTANGLE)
-            HORIZONTAL_BOUND = VERTICAL_BOUND/2;
-        else
-            HORIZONTAL_BOUND = 3*VERTICAL_BOUND/4;
+    /**
+     * Sets the direction the text is written in, {@link Playback#FORWARD} by default. Every
+     * direction reveals the same strokes, the text is laid out only once
+     *
+     * @param playback Forward, Reverse or Ping-pong
+     */
+    public TextWriter setPlayback(Playback playback){
+
+        this.playback = playback;
+        return this;
+    }
 
-        float totalLetterWidth = 0;
-        for(int i=0; i< text.length(); i++){
+    /**
+     * Turns the writing around from where it is, a written text is un-written stroke by stroke
+     * and an un-written one is written again. A finished text starts moving again
+     */
+    public TextWriter reverse(){
 
-            if(!Character.isUpperCase(text.charAt(i)) && !Character.isSpaceChar(text.charAt(i)))
-                throw new RuntimeException("Text does not follow rules");
+        if(state == State.IDLE)
+            return this;
 
-            if(i == 0 && Character.isSpaceChar(text.charAt(i)))
-                throw new RuntimeException("First character cannot be a whitespace");
+        clock.reverse();
 
-            if(i == text.length()-1 && Character.isSpaceChar(text.charAt(i)))
-                throw new RuntimeException("Last character cannot be a whitespace");
+        if(state == State.FINISHED) {
 
-            //adds the width required to draw the particular letter
-            if(text.charAt(i) == 'I')
-                totalLetterWidth += 0;
-            else if(text.charAt(i) == ' ')
-                totalLetterWidth += HORIZONTAL_BOUND;
-            else if(text.charAt(i) == 'C' || text.charAt(i) == 'G')
-                totalLetterWidth += HORIZONTAL_BOUND + HORIZONTAL_BOUND*Math.cos(-315*Math.PI/180);
-            else if(text.charAt(i) == 'J' || text.charAt(i) == 'U' || text.charAt(i) == 'L')
-                totalLetterWidth += 3*HORIZONTAL_BOUND/2;
-            else
-                totalLetterWidth += 2*HORIZONTAL_BOUND;
+            state = State.RUNNING;
+            beginMetrics();
+            invalidate();
+            scheduleFrame();
         }
+        return this;
+    }
 
-        //get only the letters excluding whitespaces
-        int letters = text.replaceAll(" ", "").length();
-
-        //calculates the total width required to draw the letters including gap b/w letters
-        float totalWidth = totalLetterWidth + GAP*(letters - 1);
+    /**
+     * Sets the configuration/shape of the drawing based on {@link Configuration} selected
+     *
+     * @param config Square, Rectangle or Intermediate
+     */
+    public TextWriter setConfig(Configuration config){
 
-        //the starting and ending x-coordinate
-        float startX = (screenWidth - totalWidth)/2;
-        float endX = (screenWidth + totalWidth)/2;
+        this.config = config;
+        return this;
+    }
 
-        //the y-coordinate of the center of the canvas for drawing a letter
-        centreY = screenHeight/2;
+    /**
+     * Sets how the letters that are written completely are cached, {@link RenderMode#SOFTWARE}
+     * by default
+     *
+     * @param renderMode Software or Hardware
+     */
+    public TextWriter setRenderMode(RenderMode renderMode){
 
-        currentPosition = 0;
-        currentCharacter = text.charAt(currentPosition);
-        hasDrawingStarted = true;
+        this.renderMode = renderMode;
+        releaseCache();
+        invalidate();
+        return this;
+    }
 
-        //the x-coordinate of the center of the canvas for drawing a letter
-        if(currentCharacter == 'I')
-            centreX = startX;
-        else if(currentCharacter == ' ')
-            centreX = startX + HORIZONTAL_BOUND/2;
-        else if(currentCharacter == 'J' || currentCharacter == 'U' || currentCharacter == 'L')
-            centreX = startX + 3*HORIZONTAL_BOUND/4;
-        else
-            centreX = startX + HORIZONTAL_BOUND;
+    /**
+     * This is the input text that needs to be drawn
+     *
+     * @param text the input string
+     */
+    public TextWriter setText(String text){
 
-        Log.e("boom", startX+"  -  "+endX+"  -  "+screenWidth);
+        this.text = text;
 
-        //start the drawing
-        startDrawing();
+        //a text prepared or still being prepared doesn't replace this one
+        prepareGeneration++;
+        prepared = null;
+        requestLayout();
+        return this;
     }
 
-    private void startDrawingA(){
-
-        x = centreX - HORIZONTAL_BOUND;
-        y = centreY + VERTICAL_BOUND;
+    /**
+     * Fits and lays the text out on a background thread, so that {@link #startAnimation()} only
+     * has to draw it. {@param callback} is called on the main thread once it is laid out, the
+     * text replaces the current one with the next {@link #startAnimation()}. The layout is used
+     * as long as the settings and the size of the view are the same by then, or else the text is
+     * laid out again. A text is prepared only once the size of the view is known, until then it
+     * is only set
+     *
+     * @param text the input string
+     * @param callback {@link PrepareCallback}, can be null
+     */
+    public TextWriter prepareAsync(final String text, @Nullable final PrepareCallback callback){
 
-        path.moveTo(x, y);
+        final int generation = ++prepareGeneration;
 
-        step = 1;
+        if(screenWidth <= 0 || screenHeight <= 0) {
 
-        invalidate();
+            //a view that wraps the text needs it to get its size
+            this.text = text;
+            requestLayout();
+
+            pendingPrepareCallback = callback;
+            pendingPrepare = true;
+            return this;
+        }
+        pendingPrepare = false;
+        pendingPrepareCallback = null;
+
+        //the settings are read here on the main thread, the text is fitted and laid out in the
+        //background
+        final LayoutSettings settings = getLayoutSettings();
+        final float width = screenWidth, height = screenHeight;
+
+        getLayoutExecutor().execute(new Runnable() {
+            @Override
+            public void run() {
+
+                final StrokeTimeline timeline = new StrokeTimeline();
+                float bound = 0;
+                TextLayout layout = null;
+                RuntimeException error = null;
+                try {
+                    bound = settings.getVerticalBound(text, width, height);
+                    layout = settings.createLayout(bound);
+                    layout.layout(text, width, height, timeline);
+                } catch (RuntimeException e) {
+                    error = e;
+                }
+
+                final float fittedBound = bound;
+                final TextLayout fitted = layout;
+                final RuntimeException failure = error;
+                MAIN_HANDLER.post(new Runnable() {
+                    @Override
+                    public void run() {
+
+                        //a text set or prepared later replaces this one
+                        if(generation != prepareGeneration)
+                            return;
+
+                        if(failure != null) {
+
+                            if(callback != null)
+                                callback.onPrepareFailed(failure);
+                            return;
+                        }
+
+                        //the text being written is replaced only when the next one starts
+                        prepared = new PreparedLayout(settings, text, width, height, fittedBound, fitted, timeline);
+
+                        if(callback != null)
+                            callback.onPrepared();
+                    }
+                });
+            }
+        });
+        return this;
     }
 
-    private void startDrawingB(){
-
-        x = centreX - HORIZONTAL_BOUND;
-        y = centreY + VERTICAL_BOUND;
+    private static synchronized Executor getLayoutExecutor(){
 
-        path.moveTo(x, y);
+        if(layoutExecutor == null) {
 
-        sweepAngle = 0;
-        step = 1;
+            layoutExecutor = Executors.newSingleThreadExecutor(new ThreadFactory() {
+                @Override
+                public Thread newThread(Runnable runnable) {
 
-        invalidate();
+                    Thread thread = new Thread(runnable, "TextWriter layout");
+                    thread.setDaemon(true);
+                    return thread;
+                }
+            });
+        }
+        return layoutExecutor;
     }
 
-    private void startDrawingC(){
-
-        sweepAngle = 0;
-
-        step = 1;
+    /**
+     * Adds text after the text that is being written. Only the appended letters are laid out,
+     * they continue the last line and the letters written so far stay where they are. The
+     * appended text is written at the pace of the running animation and a finished animation
+     * starts writing again, so text that arrives over time keeps getting written. Letters that
+     * would be written together with the ones there already, like the ones written all at once,
+     * are written in the time left instead. A view that wraps the text only grows once the
+     * appended lines don't fit anymore, without laying out the letters written so far again
+     *
+     * @param text the text to append
+     */
+    public TextWriter appendText(CharSequence text) throws RuntimeException {
 
-        invalidate();
-    }
+        //nothing is laid out yet, the whole text gets laid out once the animation starts
+        if(state == State.IDLE) {
 
-    private void startDrawingD(){
+            this.text = this.text == null ? text.toString() : this.text + text;
+            requestLayout();
+            return this;
+        }
 
-        x = centreX - HORIZONTAL_BOUND;
-        y = centreY + VERTICAL_BOUND;
+        //a timeline copied from the cache comes without the layout that continues it, laying
+        //the same text out again gives the same timeline
+        if(layout == null) {
 
-        path.moveTo(x, y);
+            layout = createLayout();
+            layout.layout(this.text, screenWidth, screenHeight, timeline);
+        }
 
-        sweepAngle = 0;
-        step = 1;
+        //the letters complete before, which stay in the cache
+        boolean[] written = new boolean[timeline.getGlyphCount()];
+        int cached = player.getCompletedCount();
+        for(int i=0; i<cached; i++)
+            written[player.getCompletedGlyph(i)] = true;
 
-        invalidate();
-    }
+        layout.append(text, screenWidth, timeline);
+        this.text = this.text + text;
+        appended = true;
 
-    private void startDrawingE(){
+        //a view that wraps the text grows with it once it doesn't fit anymore
+        if(layout.getBottom() > screenHeight)
+            requestLayout();
 
-        x = centreX + HORIZONTAL_BOUND;
-        y = centreY - VERTICAL_BOUND;
+        //stretches the duration along with the length so the pace of writing stays the same, and
+        //moves the clock to where the drawn length is the same as before, which an easing doesn't
+        //keep by itself. With a stagger the letters not written yet get new windows
+        float pacedLength = player.getPacedLength();
+        float time = player.replan();
+        long durationNanos = clock.getDuration();
+        if(pacedLength > 0)
+            durationNanos = (long) (durationNanos * (double) player.getPacedLength() / pacedLength);
+        clock.stretch(durationNanos, time);
 
-        path.moveTo(x, y);
+        if(cacheValid)
+            extendCache(written, cached);
+        revealAt(time);
 
-        step = 1;
+        if(state == State.FINISHED) {
 
-        invalidate();
+            clock.reanchor();
+            state = State.RUNNING;
+            beginMetrics();
+            invalidate();
+            scheduleFrame();
+        }
+        return this;
     }
 
-    private void startDrawingF(){
+    /**
+     * Adds a text to be written once the texts before it are, a text enqueued into a view that
+     * isn't writing yet starts right away. The next text is laid out in the background while the
+     * one before it is written, the view switches to it within a frame. {@link Listener} is
+     * called every time a text is finished
+     *
+     * @param text the input string
+     * @param style {@link Style} of the text and of the transition to it, can be null
+     * @throws RuntimeException if the text doesn't follow the rules
+     */
+    public TextWriter enqueue(String text, @Nullable Style style) throws RuntimeException {
 
-        x = centreX + HORIZONTAL_BOUND;
-        y = centreY - VERTICAL_BOUND;
+        //the text is checked right away instead of when it is its turn
+        createLayout(VERTICAL_BOUND).measure(text);
 
-        path.moveTo(x, y);
+        queue.add(new QueuedText(text, style != null ? style : new Style()));
 
-        step = 1;
+        if(state == State.IDLE && !pendingStart)
+            playNext(-1);
+        else {
 
-        invalidate();
+            prepareNext();
+            updateTicking();
+        }
+        return this;
     }
 
-    private void startDrawingG(){
+    /**
+     * Drops the texts that are waiting in the queue, the text being written is finished
+     */
+    public TextWriter clearQueue(){
 
-        sweepAngle = 0;
+        queue.clear();
+        return this;
+    }
 
-        step = 1;
+    /**
+     * Puts every text of the queue back at its end once it is written, for a loop that keeps
+     * running. The layouts of the texts are cached, so they are laid out only once
+     *
+     * @param looping true to loop the queue
+     */
+    public TextWriter setQueueLooping(boolean looping){
 
-        invalidate();
+        this.queueLooping = looping;
+        return this;
     }
 
-    private void startDrawingH(){
+    /**
+     * Sets the {@link Listener} for getting callback after finishing drawing
+     *
+     * @param listener {@link Listener}
+     */
+    public TextWriter setListener(Listener listener){
 
-        x = centreX - HORIZONTAL_BOUND;
-        y = centreY - VERTICAL_BOUND;
+        this.listener = listener;
+        return this;
+    }
 
-        path.moveTo(x, y);
+    /**
+     * Sets a {@link MetricsListener} that gets the timings of every frame once a text is written.
+     * The timings are collected only while a listener is set, without any allocation
+     *
+     * @param listener {@link MetricsListener}, null to stop collecting
+     */
+    public TextWriter setMetricsListener(MetricsListener listener){
 
-        step = 1;
+        this.metricsListener = listener;
 
-        invalidate();
-    }
+        if(listener == null) {
 
-    private void startDrawingI(){
+            metrics = null;
+            metricsDone = false;
+        }
+        else if(metrics == null) {
 
-        x = centreX;
-        y = centreY - VERTICAL_BOUND;
+            metrics = new WritingMetrics(METRICS_CAPACITY);
 
-        path.moveTo(x, y);
+            if(state != State.IDLE)
+                metrics.begin(System.nanoTime(), getTargetFrameNanos());
+        }
+        return this;
+    }
 
-        step = 1;
+    /**
+     * @return the current {@link State} of the writing animation
+     */
+    public State getState(){
 
-        invalidate();
+        return state;
     }
 
-    private void startDrawingJ(){
+    /**
+     * Halts the writing animation. The letters written so far stay on the screen and no further
+     * frames are scheduled until {@link #resume()} is called
+     */
+    public void pause(){
 
-        x = centreX + 3*HORIZONTAL_BOUND/4;
-        y = centreY - VERTICAL_BOUND;
+        if(state == State.RUNNING) {
 
-        path.moveTo(x, y);
+            state = State.PAUSED;
+            if(metrics != null)
+                metrics.pause(System.nanoTime());
+        }
+    }
 
-        step = 1;
-        sweepAngle = 0;
+    /**
+     * Continues a writing animation halted by {@link #pause()}
+     */
+    public void resume(){
 
-        invalidate();
+        if(state == State.PAUSED) {
+
+            //the clock is re-anchored on the next frame so that the paused time is skipped
+            clock.reanchor();
+            if(metrics != null)
+                metrics.resume(System.nanoTime());
+            state = State.RUNNING;
+            scheduleFrame();
+        }
     }
 
-    private void startDrawingK(){
+    /**
+     * Jumps straight to a point of the writing, the text written up to that point is found with
+     * a binary search instead of replaying the frames. A running animation continues from there,
+     * a finished one is paused unless the end is set. Before the animation starts the progress is
+     * kept and the animation starts from it
+     *
+     * @param progress from 0 (nothing written) to 1 (everything written)
+     */
+    public TextWriter setProgress(float progress){
 
-        x = centreX - HORIZONTAL_BOUND;
-        y = centreY - VERTICAL_BOUND;
+        progress = Math.max(0, Math.min(1, progress));
 
-        path.moveTo(x, y);
+        if(state == State.IDLE) {
 
-        step = 1;
+            clock.restore(progress);
+            return this;
+        }
 
+        seek(progress);
         invalidate();
+        return this;
     }
 
-    private void startDrawingL(){
+    /**
+     * @return how much of the text is written, from 0 to 1
+     */
+    public float getProgress(){
+
+        return clock.getProgress();
+    }
 
-        x = centreX - 3*HORIZONTAL_BOUND/4;
-        y = centreY - VERTICAL_BOUND;
+    private void seek(float progress){
 
-        path.moveTo(x, y);
+        clock.seek(progress);
+        revealAt(progress);
 
-        step = 1;
+        //a ping-pong never ends, it goes on from where it is
+        boolean done = playback != Playback.PING_PONG && (clock.isReversing() ? progress <= 0 : progress >= 1);
+        if(done) {
 
-        invalidate();
+            //a text jumped to its end is done with the pass
+            if(state == State.RUNNING && metrics != null && metrics.getFrameCount() > 0)
+                metricsDone = true;
+            state = State.FINISHED;
+        }
+        else if(state == State.FINISHED)
+            state = State.PAUSED;
     }
 
-    private void startDrawingM(){
+    /**
+     * Shows the text the way it is written at the point in time, in either direction. Moving
+     * forward only adds the letters in between to the cache, moving back past a letter only
+     * erases that letter, so running backwards costs about as much as running forwards
+     *
+     * @param time the part of the writing time elapsed, from 0 to 1
+     */
+    private void revealAt(float time){
 
-        x = centreX - HORIZONTAL_BOUND;
-        y = centreY + VERTICAL_BOUND;
+        //every letter in progress is drawn into the path, so all of them are drawn in a single
+        //pass. The letters completed since the last call are flattened into the cache together
+        path.reset();
+        scratch.reset();
 
-        path.moveTo(x, y);
+        int cached = player.getCompletedCount();
+        boolean kept = player.reveal(time, scratchRenderer, pathRenderer);
 
-        step = 1;
+        //an invalid cache is rebuilt from the player in the next onDraw anyway
+        if(!cacheValid)
+            return;
 
-        invalidate();
+        int completed = player.getCompletedCount();
+        if(!kept)
+            eraseFromCache(completed, cached);
+        else if(completed > cached)
+            addToCache(cached, completed);
     }
 
-    private void startDrawingN(){
-
-        x = centreX - HORIZONTAL_BOUND;
-        y = centreY + VERTICAL_BOUND;
+    @Override
+    protected void onMeasure(int widthMeasureSpec, int heightMeasureSpec) {
 
-        path.moveTo(x, y);
+        //with wrap_content the view takes the size of the text at the size factor, a text that
+        //is fitted to the view takes the size it is given instead
+        if(text == null || autoFit) {
 
-        step = 1;
+            super.onMeasure(widthMeasureSpec, heightMeasureSpec);
+            return;
+        }
 
-        invalidate();
-    }
+        //the text is laid out within the padding
+        int paddingX = getPaddingLeft() + getPaddingRight(), paddingY = getPaddingTop() + getPaddingBottom();
+        float maxWidth = MeasureSpec.getMode(widthMeasureSpec) == MeasureSpec.UNSPECIFIED
+                ? Float.POSITIVE_INFINITY : MeasureSpec.getSize(widthMeasureSpec) - paddingX;
 
-    private void startDrawingO(){
+        try {
 
-        sweepAngle = 0;
+            //the lines broken at the width found are the same ones
+            TextLayout layout = createLayout(VERTICAL_BOUND);
 
-        step = 1;
+            int width = resolveSizeAndState((int) Math.ceil(layout.measureWidth(text, maxWidth)) + paddingX, widthMeasureSpec, 0);
+            float contentWidth = (width & MEASURED_SIZE_MASK) - paddingX;
+            float contentHeight = layout.measureHeight(text, contentWidth);
 
-        invalidate();
-    }
+            //appended lines break where the text ended when they were appended, the view takes
+            //their height at the width they were laid out in
+            if(appended && contentWidth == screenWidth)
+                contentHeight = Math.max(contentHeight, this.layout.getBottom());
 
-    private void startDrawingP(){
+            int height = resolveSizeAndState((int) Math.ceil(contentHeight) + paddingY, heightMeasureSpec, 0);
+            setMeasuredDimension(width, height);
+        } catch (RuntimeException e) {
 
-        x = centreX - HORIZONTAL_BOUND;
-        y = centreY + VERTICAL_BOUND;
+            //a text that can't be written is reported once the animation starts
+            super.onMeasure(widthMeasureSpec, heightMeasureSpec);
+        }
+    }
 
-        path.moveTo(x, y);
+    @Override
+    protected void onDraw(Canvas canvas) {
 
-        sweepAngle = 0;
-        step = 1;
+        if(state == State.IDLE)
+            return;
 
-        invalidate();
-    }
+        long drawStart = metrics != null ? System.nanoTime() : 0;
 
-    private void startDrawingQ(){
+        //the letters written completely are drawn from the cache, only the current letter is
+        //drawn as a path. A view attached to a hardware accelerated window since the cache was
+        //built, or detached from it, gets the other kind of cache
+        if(!cacheValid || cachedInNode != usesRenderNode())
+            rebuildCache();
 
-        sweepAngle = 0;
-        step = 1;
+        //the text is laid out within the padding
+        canvas.save();
+        canvas.translate(getPaddingLeft(), getPaddingTop());
 
-        invalidate();
-    }
+        //the text of the queue that is being faded or erased is drawn behind the next one
+        if(outgoingTimeline != null)
+            canvas.drawPath(outgoing, outgoingPaint);
 
-    private void startDrawingR(){
+        if(cachedInNode)
+            renderNodeCache.draw(canvas, paint);
+        else if(cacheBitmap != null)
+            canvas.drawBitmap(cacheBitmap, 0, 0, null);
 
-        x = centreX - HORIZONTAL_BOUND;
-        y = centreY + VERTICAL_BOUND;
+        canvas.drawPath(path, paint);
+        canvas.restore();
 
-        path.moveTo(x, y);
+        if(metrics != null) {
 
-        sweepAngle = 0;
-        step = 1;
+            metrics.recordDraw(System.nanoTime() - drawStart);
 
-        invalidate();
+            //the metrics of a pass are handed out once its last frame is drawn, a ping-pong
+            //records the next pass from there
+            if(metricsDone)
+                beginMetrics();
+        }
     }
 
-    private void startDrawingS(){
+    @Override
+    protected void onSizeChanged(int w, int h, int oldw, int oldh) {
+        super.onSizeChanged(w, h, oldw, oldh);
 
-        sweepAngle = 0;
+        //the text is laid out within the padding
+        screenWidth = w - getPaddingLeft() - getPaddingRight();
+        screenHeight = h - getPaddingTop() - getPaddingBottom();
+        releaseCache();
 
-        step = 1;
+        if(screenWidth <= 0 || screenHeight <= 0)
+            return;
 
-        invalidate();
-    }
+        if(pendingPrepare)
+            prepareAsync(text, pendingPrepareCallback);
 
-    private void startDrawingT(){
+        //the queued texts are laid out again for the new size
+        for(QueuedText item : queue)
+            item.prepared = null;
+        prepareNext();
 
-        x = centreX - HORIZONTAL_BOUND;
-        y = centreY - VERTICAL_BOUND;
+        //a view grown with the text appended to it keeps the letters where they are
+        if(state != State.IDLE && appended && w == oldw && layout.getBottom() <= screenHeight)
+            return;
 
-        path.moveTo(x, y);
+        //the text is laid out as soon as the size is known, before the view is drawn. A text that
+        //is being written is laid out again for the new size and continues from where it was
+        if(state != State.IDLE) {
 
-        step = 1;
+            clock.restore(getProgress(), clock.isReversing());
+            pendingPause = state == State.PAUSED;
+            startAnimation();
+        }
+        else if(pendingStart)
+            startAnimation();
+    }
 
-        invalidate();
+    @Override
+    protected Parcelable onSaveInstanceState() {
+
+        SavedState savedState = new SavedState(super.onSaveInstanceState());
+        savedState.text = text;
+        savedState.config = config.ordinal();
+        savedState.alignment = alignment.ordinal();
+        savedState.renderMode = renderMode.ordinal();
+        savedState.sizeFactor = VERTICAL_BOUND;
+        savedState.letterSpacing = GAP;
+        savedState.lineSpacing = LINE_SPACING;
+        savedState.color = paint.getColor();
+        savedState.width = paint.getStrokeWidth();
+        savedState.delay = DELAY;
+        savedState.duration = duration;
+        savedState.progress = getProgress();
+
+        //a text that hasn't started yet is un-written only if it is played in reverse
+        savedState.reversing = state == State.IDLE && !clock.restoresDirection()
+                ? playback == Playback.REVERSE : clock.isReversing();
+        savedState.state = state == State.IDLE && pendingStart ? State.RUNNING.ordinal() : state.ordinal();
+        return savedState;
     }
 
-    private void startDrawingU(){
+    @Override
+    protected void onRestoreInstanceState(Parcelable parcelable) {
+
+        if(!(parcelable instanceof SavedState)) {
 
-        x = centreX - 3*HORIZONTAL_BOUND/4;
-        y = centreY - VERTICAL_BOUND;
+            super.onRestoreInstanceState(parcelable);
+            return;
+        }
 
-        path.moveTo(x, y);
+        SavedState savedState = (SavedState) parcelable;
+        super.onRestoreInstanceState(savedState.getSuperState());
 
-        sweepAngle = 0;
+        text = savedState.text;
+        config = Configuration.values()[savedState.config];
+        alignment = TextLayout.Alignment.values()[savedState.alignment];
+        renderMode = RenderMode.values()[savedState.renderMode];
+        VERTICAL_BOUND = savedState.sizeFactor;
+        GAP = savedState.letterSpacing;
+        LINE_SPACING = savedState.lineSpacing;
+        paint.setColor(savedState.color);
+        paint.setStrokeWidth(savedState.width);
+        DELAY = savedState.delay;
+        duration = savedState.duration;
 
-        step = 1;
+        //the text is laid out again once the size is known and the written part is drawn in one
+        //pass from the progress, the animation isn't replayed
+        State savedAnimationState = State.values()[savedState.state];
+        if(savedAnimationState != State.IDLE) {
 
-        invalidate();
+            state = State.IDLE;
+            clock.restore(savedState.progress, savedState.reversing);
+            pendingPause = savedAnimationState == State.PAUSED;
+            startAnimation();
+        }
     }
 
-    private void startDrawingV(){
-
-        x = centreX - HORIZONTAL_BOUND;
-        y = centreY - VERTICAL_BOUND;
+    @Override
+    protected void onAttachedToWindow() {
+        super.onAttachedToWindow();
 
-        path.moveTo(x, y);
+        updateTicking();
+    }
 
-        step = 1;
+    @Override
+    protected void onDetachedFromWindow() {
+        super.onDetachedFromWindow();
 
-        invalidate();
+        //a detached view isn't ticked and the cache is rebuilt from the timeline if the view gets
+        //attached again
+        AnimationScheduler.getInstance().remove(this);
+        if(metrics != null)
+            metrics.pause(System.nanoTime());
+        releaseCache();
     }
 
-    private void startDrawingW(){
-
-        x = centreX - HORIZONTAL_BOUND;
-        y = centreY - VERTICAL_BOUND;
+    @Override
+    protected void onVisibilityChanged(View changedView, int visibility) {
+        super.onVisibilityChanged(changedView, visibility);
 
-        path.moveTo(x, y);
+        updateTicking();
+    }
 
-        step = 1;
+    @Override
+    protected void onWindowVisibilityChanged(int visibility) {
+        super.onWindowVisibilityChanged(visibility);
 
-        invalidate();
+        updateTicking();
     }
 
-    private void startDrawingX(){
+    private void releaseCache(){
 
-        x = centreX - HORIZONTAL_BOUND;
-        y = centreY - VERTICAL_BOUND;
+        if(cacheBitmap != null) {
 
-        path.moveTo(x, y);
+            cacheBitmap.recycle();
+            cacheBitmap = null;
+            cacheCanvas = null;
+        }
 
-        step = 1;
+        if(renderNodeCache != null)
+            renderNodeCache.clear();
 
-        invalidate();
+        cachedInNode = false;
+        cacheValid = false;
     }
 
-    private void startDrawingY(){
-
-        x = centreX - HORIZONTAL_BOUND;
-        y = centreY - VERTICAL_BOUND;
-
-        path.moveTo(x, y);
-
-        step = 1;
+    private boolean usesRenderNode(){
 
-        invalidate();
+        return renderMode == RenderMode.HARDWARE
+                && Build.VERSION.SDK_INT >= Build.VERSION_CODES.Q
+                && isHardwareAccelerated();
     }
 
-    private void startDrawingZ(){
+    private void rebuildCache(){
 
-        x = centreX - HORIZONTAL_BOUND;
-        y = centreY - VERTICAL_BOUND;
+        if(getWidth() <= 0 || getHeight() <= 0)
+            return;
 
-        path.moveTo(x, y);
+        cachedInNode = usesRenderNode();
+        if(cachedInNode) {
 
-        step = 1;
+            if(renderNodeCache == null)
+                renderNodeCache = new RenderNodeCache();
+            else
+                renderNodeCache.clear();
+        }
+        else if(cacheBitmap == null) {
 
-        invalidate();
-    }
+            cacheBitmap = Bitmap.createBitmap(getWidth(), getHeight(), Bitmap.Config.ARGB_8888);
+            cacheCanvas = new Canvas(cacheBitmap);
+        }
+        else
+            cacheBitmap.eraseColor(Color.TRANSPARENT);
 
-    private void startDrawingSpace(){
+        cacheValid = true;
 
-        adjust();
+        //the complete letters don't end in order with a stagger, so the bitmap gets them collected
+        //into one path
+        scratch.reset();
+        if(!cachedInNode)
+            player.drawCompleted(scratchRenderer);
+        addToCache(0, player.getCompletedCount());
     }
 
-    private void drawA(){
+    /**
+     * Adds the letters at the positions from {@param from} up to {@param to} of the order the
+     * letters complete in to the cache. The bitmap takes them from the scratch path they are
+     * collected into
+     */
+    private void addToCache(int from, int to){
 
-        if(step == 1){
+        if(cachedInNode) {
 
-            if(x > centreX - HORIZONTAL_BOUND/8 && y < centreY - VERTICAL_BOUND){
+            for(int i=from; i<to; i++)
+                renderNodeCache.add(timeline, player.getCompletedGlyph(i));
+            renderNodeCache.record(paint, getWidth(), getHeight());
+        }
+        else if(!scratch.isEmpty())
+            cacheCanvas.drawPath(scratch, paint);
+    }
 
-                x = centreX + HORIZONTAL_BOUND/8;
-                y = centreY - VERTICAL_BOUND;
-                path.lineTo(x, y);
-                step++;
-            }
-            else {
+    /**
+     * Adds the letters complete after appended letters are planned to the cache. A stagger that
+     * planned a letter complete before to be written again takes it back, which is rare enough
+     * to rebuild the cache for
+     *
+     * @param written whether every letter before the appended ones was complete
+     * @param cached the number of letters that were complete
+     */
+    private void extendCache(boolean[] written, int cached){
 
-                path.lineTo(x, y);
+        int completed = player.getCompletedCount(), kept = 0;
+        for(int i=0; i<completed; i++){
 
-                x+=HORIZONTAL_BOUND/4 - HORIZONTAL_BOUND/32;
-                y-=VERTICAL_BOUND/2;
-            }
+            int glyph = player.getCompletedGlyph(i);
+            if(glyph < written.length && written[glyph])
+                kept++;
         }
-        else if(step == 2){
-
-            if(x > centreX + HORIZONTAL_BOUND && y > centreY + VERTICAL_BOUND){
-
-                x = centreX - HORIZONTAL_BOUND/2;
-                y = centreY;
-                path.moveTo(x, y);
-                step++;
-            }
-            else {
 
-                path.lineTo(x, y);
+        if(kept < cached) {
 
-                x+=HORIZONTAL_BOUND/4 - HORIZONTAL_BOUND/32;
-                y+=VERTICAL_BOUND/2;
-            }
+            cacheValid = false;
+            return;
         }
-        else if(step == 3){
-
-            if(x > centreX + HORIZONTAL_BOUND/2){
 
-                step++;
-                adjust();
-            }
-            else {
+        scratch.reset();
+        for(int i=0; i<completed; i++){
 
-                path.lineTo(x, y);
+            int glyph = player.getCompletedGlyph(i);
+            if(glyph >= written.length || !written[glyph]) {
 
-                x+=HORIZONTAL_BOUND/2;
+                if(cachedInNode)
+                    renderNodeCache.add(timeline, glyph);
+                else
+                    timeline.drawRange(timeline.getGlyphStart(glyph), timeline.getGlyphEnd(glyph), scratchRenderer);
             }
         }
-    }
-
-    private void drawB(){
 
-        if(step == 1){
+        if(cachedInNode)
+            renderNodeCache.record(paint, getWidth(), getHeight());
+        else if(!scratch.isEmpty())
+            cacheCanvas.drawPath(scratch, paint);
+    }
 
-            if(y < centreY - VERTICAL_BOUND){
+    /**
+     * Takes the letters at the positions from {@param from} up to {@param to} of the order the
+     * letters complete in back out of the cache. The bitmap is cleared around every letter and
+     * only the letters still complete around it are drawn again
+     */
+    private void eraseFromCache(int from, int to){
 
-                x = centreX;
-                y = centreY - VERTICAL_BOUND;
-                path.lineTo(x, y);
-                step++;
-            }
-            else {
+        //taking back more letters than stay costs more than drawing the ones that stay again
+        if(to - from > from) {
 
-                path.lineTo(x, y);
-                y-=VERTICAL_BOUND/2;
-            }
+            cacheValid = false;
+            return;
         }
-        else if(step == 2){
 
-            if(sweepAngle > 180){
+        if(cachedInNode) {
 
-                sweepAngle = 0;
-                x = centreX - HORIZONTAL_BOUND;
-                y = centreY;
-                path.lineTo(x, y);
-                step++;
-            }
-            else {
-
-                RectF rect = new RectF();
-                rect.set(centreX - HORIZONTAL_BOUND,
-                        centreY - VERTICAL_BOUND,
-                        centreX + HORIZONTAL_BOUND,
-                        centreY);
-
-                path.addArc (rect, 270, sweepAngle);
-                sweepAngle+=45;
-            }
+            for(int i=from; i<to; i++)
+                renderNodeCache.remove(player.getCompletedGlyph(i));
+            renderNodeCache.record(paint, getWidth(), getHeight());
+            return;
         }
-        else if(step == 3){
 
-            if(sweepAngle > 180){
+        //the stroke reaches half its width beyond the segments, and the pixels it touches a bit
+        //further
+        float margin = paint.getStrokeWidth()/2 + 1;
+        for(int i=from; i<to; i++){
 
-                sweepAngle = 0;
-                x = centreX - HORIZONTAL_BOUND;
-                y = centreY + VERTICAL_BOUND;
-                path.lineTo(x, y);
-                step++;
-                adjust();
-            }
-            else {
+            timeline.getBounds(player.getCompletedGlyph(i), letterBounds);
+            float left = (float) Math.floor(letterBounds[0] - margin), top = (float) Math.floor(letterBounds[1] - margin);
+            float right = (float) Math.ceil(letterBounds[2] + margin), bottom = (float) Math.ceil(letterBounds[3] + margin);
 
-                RectF rect = new RectF();
-                rect.set(centreX - HORIZONTAL_BOUND,
-                        centreY,
-                        centreX + HORIZONTAL_BOUND,
-                        centreY + VERTICAL_BOUND);
+            cacheCanvas.save();
+            cacheCanvas.clipRect(left, top, right, bottom);
+            cacheCanvas.drawColor(Color.TRANSPARENT, PorterDuff.Mode.CLEAR);
 
-                path.addArc (rect, 270, sweepAngle);
-                sweepAngle+=45;
-            }
+            scratch.reset();
+            player.drawCompleted(left - margin, top - margin, right + margin, bottom + margin, scratchRenderer);
+            cacheCanvas.drawPath(scratch, paint);
+            cacheCanvas.restore();
         }
+        scratch.reset();
     }
 
-    private void drawC(){
-
-        if(step == 1){
-
-            if(sweepAngle < -270){
+    /**
+     * Asks the shared {@link AnimationScheduler} for frames, which are delivered only while the
+     * view is attached and shown. A hidden view picks up where it stopped once it is shown again
+     */
+    private void scheduleFrame(){
 
-                step++;
-                adjust();
-            }
-            else {
+        if(isTicking())
+            AnimationScheduler.getInstance().add(this);
+    }
 
-                RectF rect = new RectF();
-                rect.set(centreX - HORIZONTAL_BOUND,
-                        centreY - VERTICAL_BOUND,
-                        centreX + HORIZONTAL_BOUND,
-                        centreY + VERTICAL_BOUND);
+    private boolean isTicking(){
 
-                path.addArc (rect, -45, sweepAngle);
+        //a finished text keeps ticking while a transition runs or the next text of the queue waits
+        boolean playing = state == State.RUNNING
+                || state == State.FINISHED && (!queue.isEmpty() || outgoingTimeline != null);
 
-                sweepAngle-=45;
-            }
-        }
+        return playing && isShown() && getWindowVisibility() == VISIBLE;
     }
 
-    private void drawD(){
-
-        if(step == 1){
-
-            if(y < centreY - VERTICAL_BOUND){
+    /**
+     * Stops or restarts the frames when the view gets hidden or shown, the clock is re-anchored
+     * so that the hidden time is skipped
+     */
+    private void updateTicking(){
 
-                y = centreY - VERTICAL_BOUND;
-                step++;
-            }
-            else {
+        if(isTicking()) {
 
-                path.lineTo(x, y);
+            //only a view that wasn't ticked has time to skip, the clock of a ticked one keeps its
+            //anchor, which an erase transition sets to a later frame
+            if(!AnimationScheduler.getInstance().contains(this)) {
 
-                y-=VERTICAL_BOUND/2;
+                clock.reanchor();
+                if(metrics != null)
+                    metrics.resume(System.nanoTime());
             }
+            scheduleFrame();
         }
-        else if(step == 2){
-
-            if(sweepAngle > 180){
-
-                sweepAngle = 0;
-                step++;
-                adjust();
-            }
-            else {
-
-                RectF rect = new RectF();
-                rect.set(centreX - 3*HORIZONTAL_BOUND,
-                        centreY - VERTICAL_BOUND,
-                        centreX + HORIZONTAL_BOUND,
-                        centreY + VERTICAL_BOUND);
-
-                path.addArc (rect, 270, sweepAngle);
+        else {
 
-                sweepAngle+=45;
-            }
+            AnimationScheduler.getInstance().remove(this);
+            if(metrics != null)
+                metrics.pause(System.nanoTime());
         }
     }
 
-    private void drawE(){
-
-        if(step == 1){
-
-            if(x < centreX - HORIZONTAL_BOUND){
-
-                x = centreX - HORIZONTAL_BOUND;
-                step++;
-            }
-            else {
-
-                path.lineTo(x, y);
+    /**
+     * Advances the writing to the frame
+     *
+     * @return whether the view needs the next frame too
+     */
+    boolean doFrame(long frameTimeNanos){
 
-                x-=HORIZONTAL_BOUND/2;
-            }
-        }
-        else if(step == 2){
+        //only a running animation needs the next frame, a paused or finished drawing is redrawn
+        //only when the view gets invalidated
+        if(!isTicking())
+            return false;
 
-            if(y > centreY + VERTICAL_BOUND){
+        if(outgoingTimeline != null)
+            updateOutgoing(frameTimeNanos);
 
-                y = centreY + VERTICAL_BOUND;
-                step++;
-            }
-            else {
+        if(state == State.FINISHED) {
 
-                path.lineTo(x, y);
+            if(!queue.isEmpty())
+                advanceQueue(frameTimeNanos);
 
-                y+=VERTICAL_BOUND/2;
-            }
+            invalidate();
+            return isTicking();
         }
-        else if(step == 3){
 
-            if(x > centreX + HORIZONTAL_BOUND){
+        float time = clock.tick(frameTimeNanos);
+        long updateStart = metrics != null ? System.nanoTime() : 0;
 
-                x = centreX - HORIZONTAL_BOUND;
-                y = centreY;
-                path.moveTo(x, y);
-                step++;
-            }
-            else {
+        //a reversed text is un-written back through the same timeline
+        revealAt(clock.getProgress());
+        boolean passed = clock.isReversing() ? time >= 1 : player.isWritten();
 
-                path.lineTo(x, y);
+        //the frame is recorded before the pass ends, since a listener may start the next text
+        if(metrics != null) {
 
-                x+=HORIZONTAL_BOUND/2;
-            }
+            //the segments of the letters being written are the only ones drawn as paths
+            metrics.recordFrame(frameTimeNanos, System.nanoTime() - updateStart, player.getOpenSegments());
+            metricsDone = passed;
         }
-        else if(step == 4){
 
-            if(x > centreX + HORIZONTAL_BOUND/2){
-
-                step++;
-                adjust();
-            }
-            else {
+        if(passed)
+            finishPass();
 
-                path.lineTo(x, y);
+        invalidate();
 
-                x+=HORIZONTAL_BOUND/2;
-            }
-        }
+        return isTicking();
     }
 
-    private void drawF(){
-
-        if(step == 1){
-
-            if(x < centreX - HORIZONTAL_BOUND){
-
-                x = centreX - HORIZONTAL_BOUND;
-                step++;
-            }
-            else {
-
-                path.lineTo(x, y);
-
-                x-=HORIZONTAL_BOUND/2;
-            }
-        }
-        else if(step == 2){
-
-            if(y > centreY + VERTICAL_BOUND){
-
-                y = centreY;
-                path.moveTo(x, y);
-                step++;
-            }
-            else {
+    public void startAnimation() throws RuntimeException {
 
-                path.lineTo(x, y);
+        //the text is laid out in onSizeChanged once the size of the view is known
+        if(screenWidth <= 0 || screenHeight <= 0) {
 
-                y+=VERTICAL_BOUND/2;
-            }
+            pendingStart = true;
+            return;
         }
-        else if(step == 3){
+        pendingStart = false;
 
-            if(x > centreX + HORIZONTAL_BOUND/2){
+        //a prepared text is the one written from now on
+        if(prepared != null && !prepared.text.equals(text)) {
 
-                step++;
-                adjust();
-            }
-            else {
-
-                path.lineTo(x, y);
-
-                x+=HORIZONTAL_BOUND/2;
-            }
+            text = prepared.text;
+            requestLayout();
         }
-    }
-
-    private void drawG(){
 
-        if(step == 1){
+        //places the letters once, the animation only reveals them. A text prepared in the
+        //background is taken over as it is, fitted already, a text laid out recently with the
+        //same settings, like the one of a recycled list item, is only copied
+        if(prepared != null && prepared.matches(getLayoutSettings(), screenWidth, screenHeight)) {
 
-            if(sweepAngle < -270){
-
-                x = (float) (centreX + HORIZONTAL_BOUND*Math.cos(-315*Math.PI/180));
-                y = (float) (centreY + VERTICAL_BOUND*Math.sin(-315*Math.PI/180));
-                step++;
-            }
-            else {
-
-                RectF rect = new RectF();
-                rect.set(centreX - HORIZONTAL_BOUND,
-                        centreY - VERTICAL_BOUND,
-                        centreX + HORIZONTAL_BOUND,
-                        centreY + VERTICAL_BOUND);
-
-                path.addArc (rect, -45, sweepAngle);
-
-                sweepAngle-=45;
-            }
+            verticalBound = prepared.verticalBound;
+            HORIZONTAL_BOUND = getHorizontalBound(config, verticalBound);
+            timeline = prepared.timeline;
+            layout = prepared.layout;
         }
-        else if(step == 2){
+        else {
 
-            if(y < centreY){
+            updateBounds(screenWidth, screenHeight);
+            LayoutCache.Key key = createLayoutKey(text, verticalBound, screenWidth, screenHeight);
 
-                step++;
-            }
+            if(text != null && LayoutCache.get(key, timeline))
+                layout = null;
             else {
 
-                path.lineTo(x, y);
-
-                y-=VERTICAL_BOUND/4;
+                layout = createLayout();
+                layout.layout(text, screenWidth, screenHeight, timeline);
+                LayoutCache.put(key, timeline);
             }
         }
-        else if(step == 3){
+        prepared = null;
+        appended = false;
 
-            if(x < centreX){
-
-                step++;
-                adjust();
-            }
-            else {
+        //plans the windows of the letters, the length written one letter after the other in the
+        //time the stagger takes sets the pace
+        player.start(timeline);
 
-                path.lineTo(x, y);
+        long durationNanos;
+        if(duration > 0)
+            durationNanos = duration * 1000000L;
+        else
+            durationNanos = (long) (player.getPacedLength() / (verticalBound/2) * DELAY * 1000000L);
 
-                x-=HORIZONTAL_BOUND/2;
-            }
-        }
-    }
+        path.reset();
+        cacheValid = false;
+        holdStart = -1;
 
-    private void drawH(){
+        //a reversed text starts written and is un-written, a text laid out again continues from
+        //where it was in the direction it was going
+        boolean restored = clock.start(durationNanos, playback == Playback.REVERSE);
 
-        if(step == 1){
+        //start the drawing
+        state = State.RUNNING;
 
-            if(y > centreY + VERTICAL_BOUND){
+        beginMetrics();
 
-                y = centreY - VERTICAL_BOUND;
-                x = centreX + HORIZONTAL_BOUND;
-                path.moveTo(x, y);
-                step++;
-            }
-            else {
+        if(restored)
+            seek(clock.getProgress());
 
-                path.lineTo(x, y);
+        if(pendingPause && state == State.RUNNING)
+            state = State.PAUSED;
+        pendingPause = false;
 
-                y+=VERTICAL_BOUND/2;
-            }
-        }
-        else if(step == 2){
+        invalidate();
+        if(state == State.RUNNING)
+            scheduleFrame();
+    }
 
-            if(y > centreY + VERTICAL_BOUND){
+    /**
+     * Ends the pass over the text, a ping-pong turns around and takes what the frame overshot
+     * into the next pass
+     */
+    private void finishPass(){
 
-                y = centreY;
-                x = centreX - HORIZONTAL_BOUND;
-                path.moveTo(x, y);
-                step++;
-            }
-            else {
+        boolean written = !clock.isReversing();
 
-                path.lineTo(x, y);
+        if(playback == Playback.PING_PONG)
+            clock.turn();
+        else {
 
-                y+=VERTICAL_BOUND/2;
-            }
+            //stop drawing
+            state = State.FINISHED;
         }
-        else if(step == 3){
-
-            if(x > centreX + HORIZONTAL_BOUND){
 
-                step++;
-                adjust();
-            }
-            else {
-
-                path.lineTo(x, y);
-
-                x+=HORIZONTAL_BOUND/2;
-            }
-        }
+        if(listener != null && (written || state == State.FINISHED))
+            listener.WritingFinished();
     }
 
-    private void drawI(){
-
-        if(step == 1){
+    /**
+     * Starts recording the frames of the next pass. The metrics of the pass before are handed
+     * out first, also when the next pass starts before its last frame is drawn
+     */
+    private void beginMetrics(){
 
-            if(y > centreY + VERTICAL_BOUND){
+        if(metrics == null)
+            return;
 
-                step++;
-                adjust();
-            }
-            else {
+        long now = System.nanoTime();
+        if(metricsDone) {
 
-                path.lineTo(x, y);
+            metricsDone = false;
+            metrics.end(now);
+            metricsListener.onWritingMeasured(metrics);
 
-                y+=VERTICAL_BOUND/2;
-            }
+            //the listener may have stopped collecting
+            if(metrics == null)
+                return;
         }
+        metrics.begin(now, getTargetFrameNanos());
     }
 
-    private void drawJ(){
+    private long getTargetFrameNanos(){
 
-        if(step == 1){
+        float refreshRate = 60;
+        if(Build.VERSION.SDK_INT >= Build.VERSION_CODES.JELLY_BEAN_MR1 && getDisplay() != null)
+            refreshRate = getDisplay().getRefreshRate();
 
-            if(y > centreY + 3*VERTICAL_BOUND/4){
+        return (long) (1000000000L / refreshRate);
+    }
 
-                y = centreY + 3*VERTICAL_BOUND/4;
-                //path.lineTo(x, y);
-                step++;
-            }
-            else {
+    private LayoutCache.Key createLayoutKey(String text, float verticalBound, float width, float height){
 
-                path.lineTo(x, y);
+        return getLayoutSettings().createKey(text, verticalBound, width, height);
+    }
 
-                y+=VERTICAL_BOUND/2;
-            }
-        }
-        else if(step == 2){
+    private TextLayout createLayout(){
 
-            if(sweepAngle > 180){
+        return createLayout(verticalBound);
+    }
 
-                sweepAngle = 0;
-                step++;
-                adjust();
-            }
-            else {
+    private TextLayout createLayout(float verticalBound){
 
-                RectF rect = new RectF();
-                rect.set(centreX - 3*HORIZONTAL_BOUND/4,
-                        centreY,
-                        centreX + 3*HORIZONTAL_BOUND/4,
-                        centreY + VERTICAL_BOUND);
+        return getLayoutSettings().createLayout(verticalBound);
+    }
 
-                path.addArc (rect, 0, sweepAngle);
+    /**
+     * @return the settings the text is laid out with, which can be used on any thread
+     */
+    private LayoutSettings getLayoutSettings(){
 
-                sweepAngle+=45;
-            }
-        }
+        return getLayoutSettings(paint.getStrokeWidth());
     }
 
-    private void drawK(){
-
-        if(step == 1){
+    private LayoutSettings getLayoutSettings(float strokeWidth){
 
-            if(y > centreY + VERTICAL_BOUND){
+        //the stroke needs room around the outlines of the letters
+        return new LayoutSettings(typeface, glyphRegistry, config, alignment, autoFit, VERTICAL_BOUND,
+                GAP, LINE_SPACING, strokeWidth/2);
+    }
 
-                y = centreY;
-                path.moveTo(x, y);
-                x = centreX - HORIZONTAL_BOUND;
-                y = centreY;
-                path.lineTo(x, y);
-                step++;
-            }
-            else {
+    /**
+     * Sets the bounds of the letters of the text for a canvas of the given size
+     *
+     * @throws RuntimeException if the text to fit doesn't follow the rules
+     */
+    private void updateBounds(float width, float height) throws RuntimeException {
 
-                path.lineTo(x, y);
+        verticalBound = getLayoutSettings().getVerticalBound(text, width, height);
+        HORIZONTAL_BOUND = getHorizontalBound(config, verticalBound);
+    }
 
-                y+=VERTICAL_BOUND/2;
-            }
-        }
-        else if(step == 2){
+    /**
+     * Lays the next text of the queue out in the background while the current one is written,
+     * a text played before is only copied from the {@link LayoutCache}
+     */
+    private void prepareNext(){
 
-            if(x > centreX + HORIZONTAL_BOUND && y < centreY - VERTICAL_BOUND){
+        final QueuedText next = queue.peek();
+        if(next == null || next.prepared != null || next.preparing || screenWidth <= 0 || screenHeight <= 0)
+            return;
 
-                x = centreX - HORIZONTAL_BOUND/2;
-                y = centreY - VERTICAL_BOUND/4;
-                path.moveTo(x, y);
-                step++;
-            }
-            else {
+        //the next text is written with the stroke of its own style
+        final LayoutSettings settings = getLayoutSettings(next.style.width != null ? next.style.width : paint.getStrokeWidth());
+        final float width = screenWidth, height = screenHeight;
 
-                path.lineTo(x, y);
+        next.preparing = true;
+        getLayoutExecutor().execute(new Runnable() {
+            @Override
+            public void run() {
 
-                x+=HORIZONTAL_BOUND/2;
-                y-=VERTICAL_BOUND/4;
-            }
-        }
-        else if(step == 3){
+                final StrokeTimeline timeline = new StrokeTimeline();
+                PreparedLayout laidOut = null;
+                try {
+                    float bound = settings.getVerticalBound(next.text, width, height);
+                    LayoutCache.Key key = settings.createKey(next.text, bound, width, height);
 
-            if(x > centreX + HORIZONTAL_BOUND && y > centreY + VERTICAL_BOUND){
+                    TextLayout layout = null;
+                    if(!LayoutCache.get(key, timeline)) {
 
-                step++;
-                adjust();
-            }
-            else {
+                        layout = settings.createLayout(bound);
+                        layout.layout(next.text, width, height, timeline);
+                        LayoutCache.put(key, timeline);
+                    }
+                    laidOut = new PreparedLayout(settings, next.text, width, height, bound, layout, timeline);
+                } catch (RuntimeException e) {
+                    //the text is laid out again when it is its turn, which reports the failure
+                }
 
-                path.lineTo(x, y);
+                final PreparedLayout result = laidOut;
+                MAIN_HANDLER.post(new Runnable() {
+                    @Override
+                    public void run() {
 
-                x+=3*HORIZONTAL_BOUND/4;
-                y+=5*VERTICAL_BOUND/8;
+                        next.preparing = false;
+                        next.prepared = result;
+                    }
+                });
             }
-        }
+        });
     }
 
-    private void drawL(){
-
-        if(step == 1){
-
-            if(y > centreY + VERTICAL_BOUND){
-
-                y = centreY + VERTICAL_BOUND;
-                step++;
-            }
-            else {
-
-                path.lineTo(x, y);
-
-                y+=VERTICAL_BOUND/2;
-            }
-        }
-        else if(step == 2){
-
-            if(x > centreX + 3*HORIZONTAL_BOUND/4){
-
-                step++;
-                adjust();
-            }
-            else {
+    /**
+     * Waits for the hold time of the finished text and for the layout of the next one, then
+     * switches to it
+     */
+    private void advanceQueue(long frameTimeNanos){
 
-                path.lineTo(x, y);
+        if(holdStart < 0)
+            holdStart = frameTimeNanos;
 
-                x+=HORIZONTAL_BOUND/2;
-            }
-        }
+        if(frameTimeNanos - holdStart >= holdNanos && !queue.peek().preparing)
+            playNext(frameTimeNanos);
     }
 
-    private void drawM(){
-
-        if(step == 1){
-
-            if(y < centreY - VERTICAL_BOUND){
+    /**
+     * Starts writing the next text of the queue. The text written so far becomes the outgoing
+     * text of the transition, which is faded out while the next text is written or erased before
+     */
+    private void playNext(long frameTimeNanos){
 
-                y = centreY - VERTICAL_BOUND;
-                x = centreX - HORIZONTAL_BOUND + HORIZONTAL_BOUND/8;
-                path.lineTo(x, y);
-                step++;
-            }
-            else {
+        QueuedText next = queue.poll();
+        Style style = next.style;
 
-                path.lineTo(x, y);
+        if(queueLooping && current != null) {
 
-                y-=VERTICAL_BOUND/2;
-            }
+            current.prepared = null;
+            queue.add(current);
         }
-        else if(step == 2){
+        current = next;
 
-            if(x > centreX && y > centreY){
+        long transitionNanos = style.transitionDuration * 1000000L;
+        if(state != State.IDLE && style.transition != Transition.NONE && transitionNanos > 0) {
 
-                x = centreX;
-                y = centreY;
-                step++;
-            }
-            else {
+            //the timeline moves to the outgoing text, the next text gets a new one
+            outgoingTimeline = timeline;
+            timeline = new StrokeTimeline();
 
-                path.lineTo(x, y);
+            outgoingPaint.set(paint);
+            outgoingAlpha = paint.getAlpha();
+            outgoingTransition = style.transition;
+            outgoingStart = frameTimeNanos;
+            outgoingNanos = transitionNanos;
 
-                x+=HORIZONTAL_BOUND/2 - HORIZONTAL_BOUND/16;
-                y+=VERTICAL_BOUND/2;
-            }
+            outgoing.reset();
+            outgoingTimeline.drawRange(0, outgoingTimeline.getSegmentCount(), outgoingRenderer);
         }
-        else if(step == 3){
 
-            if(x > centreX + HORIZONTAL_BOUND - HORIZONTAL_BOUND/8 && y < centreY - VERTICAL_BOUND){
+        if(style.color != null)
+            paint.setColor(style.color);
+        if(style.width != null)
+            paint.setStrokeWidth(style.width);
 
-                x = centreX + HORIZONTAL_BOUND;
-                y = centreY - VERTICAL_BOUND;
-                path.lineTo(x, y);
-                step++;
-            }
-            else {
+        text = next.text;
+        prepared = next.prepared;
+        requestLayout();
 
-                path.lineTo(x, y);
+        //a text still being prepared doesn't replace the queued one
+        prepareGeneration++;
+        holdNanos = style.hold * 1000000L;
+        startAnimation();
 
-                x+=HORIZONTAL_BOUND/2 - HORIZONTAL_BOUND/16;
-                y-=VERTICAL_BOUND/2;
-            }
-        }
-        else if(step == 4){
+        //the clock of the next text starts once the outgoing one is erased
+        if(outgoingTimeline != null && outgoingTransition == Transition.ERASE && state == State.RUNNING)
+            clock.anchor(frameTimeNanos + outgoingNanos);
 
-            if(y > centreY + VERTICAL_BOUND){
-
-                y = centreY + VERTICAL_BOUND;
-                step++;
-                adjust();
-            }
-            else {
-
-                path.lineTo(x, y);
-
-                y+=VERTICAL_BOUND/2;
-            }
-        }
+        prepareNext();
     }
 
-    private void drawN(){
-
-        if(step == 1){
-
-            if(y < centreY - VERTICAL_BOUND){
-
-                y = centreY - VERTICAL_BOUND;
-                x = centreX - HORIZONTAL_BOUND + HORIZONTAL_BOUND/8;
-                path.lineTo(x, y);
-                step++;
-            }
-            else {
-
-                path.lineTo(x, y);
-
-                y-=VERTICAL_BOUND/2;
-            }
-        }
-        else if(step == 2){
-
-            if(x > centreX + HORIZONTAL_BOUND - HORIZONTAL_BOUND/8 && y > centreY + VERTICAL_BOUND){
+    /**
+     * Fades or erases the outgoing text for the time of the frame
+     */
+    private void updateOutgoing(long frameTimeNanos){
 
-                x = centreX + HORIZONTAL_BOUND;
-                y = centreY + VERTICAL_BOUND;
-                path.lineTo(x, y);
-                step++;
-            }
-            else {
+        float time = (float) (frameTimeNanos - outgoingStart) / outgoingNanos;
 
-                path.lineTo(x, y);
+        if(time >= 1) {
 
-                x+=HORIZONTAL_BOUND/2 - HORIZONTAL_BOUND/16;
-                y+=VERTICAL_BOUND/2;
-            }
+            outgoingTimeline = null;
+            outgoing.reset();
+            return;
         }
-        else if(step == 3){
-
-            if(y < centreY - VERTICAL_BOUND){
 
-                y = centreY - VERTICAL_BOUND;
-                step++;
-                adjust();
-            }
-            else {
-
-                path.lineTo(x, y);
+        if(outgoingTransition == Transition.CROSSFADE)
+            outgoingPaint.setAlpha((int) (outgoingAlpha * (1 - time)));
+        else {
 
-                y-=VERTICAL_BOUND/2;
-            }
+            outgoing.reset();
+            outgoingTimeline.reveal(0, outgoingTimeline.getLength() * (1 - time), outgoingRenderer, outgoingRenderer);
         }
     }
 
-    private void drawO(){
-
-        if(step == 1){
-
-            if(sweepAngle < -360){
-
-                step++;
-                adjust();
-            }
-            else {
-
-                RectF rect = new RectF();
-                rect.set(centreX - HORIZONTAL_BOUND,
-                        centreY - VERTICAL_BOUND,
-                        centreX + HORIZONTAL_BOUND,
-                        centreY + VERTICAL_BOUND);
+    static float getHorizontalBound(Configuration config, float verticalBound){
 
-                path.addArc (rect, 0, sweepAngle);
-
-                sweepAngle-=45;
-            }
-        }
+        //the HORIZONTAL_BOUND based on the configuration
+        if(config == Configuration.SQUARE)
+            return verticalBound;
+        else if(config == Configuration.RECTANGLE)
+            return verticalBound/2;
+        else
+            return 3*verticalBound/4;
     }
 
-    private void drawP(){
+    /**
+     * Keeps the path of every completed letter, recorded in blocks of neighbouring letters into
+     * RenderNodes of their own. The already tessellated paths are reused by the GPU, and adding or
+     * taking back a letter only records its block again
+     */
+    @TargetApi(Build.VERSION_CODES.Q)
+    private static class RenderNodeCache {
 
-        if(step == 1){
+        //the number of letters recorded together
+        private static final int BLOCK_SIZE = 32;
 
-            if(y < centreY - VERTICAL_BOUND){
+        private final RenderNode node = new RenderNode("TextWriter");
+        private RenderNode[] blocks = new RenderNode[0];
+        private boolean[] dirty = new boolean[0];
 
-                x = centreX;
-                y = centreY - VERTICAL_BOUND;
-                path.lineTo(x, y);
-                step++;
-            }
-            else {
+        //the path of every letter is kept for the next time it is completed
+        private Path[] paths = new Path[0];
+        private PathRenderer[] renderers = new PathRenderer[0];
+        private boolean[] cached = new boolean[0];
 
-                path.lineTo(x, y);
-                y-=VERTICAL_BOUND/2;
-            }
-        }
-        else if(step == 2){
+        void add(StrokeTimeline timeline, int glyph) {
 
-            if(sweepAngle > 180){
+            if(glyph >= paths.length) {
 
-                sweepAngle = 0;
-                x = centreX - HORIZONTAL_BOUND;
-                y = centreY;
-                path.lineTo(x, y);
-                step++;
-                adjust();
-            }
-            else {
+                int capacity = Math.max(glyph + 1, 2 * paths.length);
+                paths = Arrays.copyOf(paths, capacity);
+                renderers = Arrays.copyOf(renderers, capacity);
+                cached = Arrays.copyOf(cached, capacity);
 
-                RectF rect = new RectF();
-                rect.set(centreX - HORIZONTAL_BOUND,
-                        centreY - VERTICAL_BOUND,
-                        centreX + HORIZONTAL_BOUND,
-                        centreY);
-
-                path.addArc (rect, 270, sweepAngle);
-                sweepAngle+=45;
+                int blockCount = (capacity + BLOCK_SIZE - 1) / BLOCK_SIZE;
+                blocks = Arrays.copyOf(blocks, blockCount);
+                dirty = Arrays.copyOf(dirty, blockCount);
             }
-        }
-    }
-
-    private void drawQ(){
 
-        if(step == 1){
+            if(paths[glyph] == null) {
 
-            if(sweepAngle < -360){
-
-                x = centreX + HORIZONTAL_BOUND/2;
-                y = centreY + VERTICAL_BOUND/2;
-                path.moveTo(x, y);
-                step++;
+                paths[glyph] = new Path();
+                renderers[glyph] = new PathRenderer(paths[glyph]);
             }
-            else {
-
-                RectF rect = new RectF();
-                rect.set(centreX - HORIZONTAL_BOUND,
-                        centreY - VERTICAL_BOUND,
-                        centreX + HORIZONTAL_BOUND,
-                        centreY + VERTICAL_BOUND);
 
-                path.addArc (rect, 0, sweepAngle);
-
-                sweepAngle-=45;
-            }
+            paths[glyph].reset();
+            timeline.drawRange(timeline.getGlyphStart(glyph), timeline.getGlyphEnd(glyph), renderers[glyph]);
+            cached[glyph] = true;
+            dirty[glyph / BLOCK_SIZE] = true;
         }
-        else if(step == 2){
-
-            if(x > centreX + HORIZONTAL_BOUND && y > centreY + VERTICAL_BOUND){
 
-                step++;
-                adjust();
-            }
-            else {
+        void remove(int glyph) {
 
-                path.lineTo(x, y);
+            if(glyph >= cached.length || !cached[glyph])
+                return;
 
-                x+=HORIZONTAL_BOUND/2;
-                y+=VERTICAL_BOUND/2;
-            }
+            cached[glyph] = false;
+            dirty[glyph / BLOCK_SIZE] = true;
         }
-    }
 
-    private void drawR(){
+        /**
+         * Records the blocks with letters added or taken back since the last time
+         */
+        void record(Paint paint, int width, int height) {
 
-        if(step == 1){
+            boolean added = !node.hasDisplayList();
+            for(int block=0; block<blocks.length; block++){
 
-            if(y < centreY - VERTICAL_BOUND){
+                if(!dirty[block])
+                    continue;
+                dirty[block] = false;
 
-                x = centreX;
-                y = centreY - VERTICAL_BOUND;
-                path.lineTo(x, y);
-                step++;
-            }
-            else {
+                if(blocks[block] == null) {
 
-                path.lineTo(x, y);
-                y-=VERTICAL_BOUND/2;
-            }
-        }
-        else if(step == 2){
+                    blocks[block] = new RenderNode("TextWriter block");
+                    added = true;
+                }
 
-            if(sweepAngle > 180){
+                blocks[block].setPosition(0, 0, width, height);
+                RecordingCanvas canvas = blocks[block].beginRecording(width, height);
+                int end = Math.min(cached.length, (block + 1) * BLOCK_SIZE);
+                for(int glyph=block*BLOCK_SIZE; glyph<end; glyph++){
 
-                sweepAngle = 0;
-                x = centreX - HORIZONTAL_BOUND;
-                y = centreY;
-                path.lineTo(x, y);
-                x = centreX;
-                y = centreY;
-                path.moveTo(x, y);
-                step++;
+                    if(cached[glyph])
+                        canvas.drawPath(paths[glyph], paint);
+                }
+                blocks[block].endRecording();
             }
-            else {
-
-                RectF rect = new RectF();
-                rect.set(centreX - HORIZONTAL_BOUND,
-                        centreY - VERTICAL_BOUND,
-                        centreX + HORIZONTAL_BOUND,
-                        centreY);
 
-                path.addArc (rect, 270, sweepAngle);
-                sweepAngle+=45;
-            }
-        }
-        else if(step == 3){
-
-            if(x > centreX + HORIZONTAL_BOUND && y > centreY + VERTICAL_BOUND){
-
-                step++;
-                adjust();
-            }
-            else {
+            //the node only draws the blocks, a block recorded again is picked up by itself
+            if(added) {
 
-                path.lineTo(x, y);
+                node.setPosition(0, 0, width, height);
+                RecordingCanvas canvas = node.beginRecording(width, height);
+                for(RenderNode block : blocks) {
 
-                x+=HORIZONTAL_BOUND/2;
-                y+=VERTICAL_BOUND/2;
+                    if(block != null)
+                        canvas.drawRenderNode(block);
+                }
+                node.endRecording();
             }
         }
-    }
 
-    private void drawS(){
+        /**
+         * Draws the cached letters. A canvas that isn't hardware accelerated, like the one of a
+         * bitmap or of a software layer, can't draw a RenderNode, so the paths are drawn on it
+         */
+        void draw(Canvas canvas, Paint paint) {
 
-        if(step == 1){
+            if(!canvas.isHardwareAccelerated()) {
 
-            if(sweepAngle < -270){
+                for(int glyph=0; glyph<cached.length; glyph++){
 
-                sweepAngle = 0;
-                step++;
-            }
-            else {
-
-                RectF rect = new RectF();
-                rect.set(centreX - HORIZONTAL_BOUND,
-                        centreY - VERTICAL_BOUND,
-                        centreX + HORIZONTAL_BOUND,
-                        centreY - VERTICAL_BOUND/1024);
-
-                path.addArc (rect, 0, sweepAngle);
-
-                sweepAngle-=45;
+                    if(cached[glyph])
+                        canvas.drawPath(paths[glyph], paint);
+                }
             }
+            else if(node.hasDisplayList())
+                canvas.drawRenderNode(node);
         }
-        else if(step == 2){
 
-            if(sweepAngle > 270){
+        void clear() {
 
-                step++;
-                adjust();
-            }
-            else {
-
-                RectF rect = new RectF();
-                rect.set(centreX - HORIZONTAL_BOUND,
-                        centreY + VERTICAL_BOUND/1024,
-                        centreX + HORIZONTAL_BOUND,
-                        centreY + VERTICAL_BOUND);
-
-                path.addArc (rect, -90, sweepAngle);
+            Arrays.fill(cached, false);
+            Arrays.fill(dirty, false);
+            for(RenderNode block : blocks) {
 
-                sweepAngle+=45;
+                if(block != null)
+                    block.discardDisplayList();
             }
+            node.discardDisplayList();
         }
     }
 
-    private void drawT(){
-
-        if(step == 1){
-
-            if(x > centreX + HORIZONTAL_BOUND){
+    /**
+     * The text, the look and the exact progress of the writing, which is all it takes to draw
+     * the view again after a configuration change
+     */
+    static class SavedState extends BaseSavedState {
 
-                x = centreX;
-                path.moveTo(x, y);
-                step++;
-            }
-            else {
+        String text;
+        int config, alignment, renderMode, color, delay, state;
+        float sizeFactor, letterSpacing, lineSpacing, width, progress;
+        long duration;
+        boolean reversing;
 
-                path.lineTo(x, y);
+        SavedState(Parcelable superState) {
 
-                x+=HORIZONTAL_BOUND/2;
-            }
+            super(superState);
         }
-        else if(step == 2){
-
-            if(y > centreY + VERTICAL_BOUND){
-
-                step++;
-                adjust();
-            }
-            else {
 
-                path.lineTo(x, y);
+        private SavedState(Parcel in) {
 
-                y+=VERTICAL_BOUND/2;
-            }
+            super(in);
+            text = in.readString();
+            config = in.readInt();
+            alignment = in.readInt();
+            renderMode = in.readInt();
+            color = in.readInt();
+            delay = in.readInt();
+            state = in.readInt();
+            sizeFactor = in.readFloat();
+            letterSpacing = in.readFloat();
+            lineSpacing = in.readFloat();
+            width = in.readFloat();
+            progress = in.readFloat();
+            duration = in.readLong();
+            reversing = in.readInt() != 0;
         }
-    }
-
-    private void drawU(){
 
-        if(step == 1){
+        @Override
+        public void writeToParcel(Parcel out, int flags) {
 
-            if(y > centreY + VERTICAL_BOUND/2){
-
-                y = centreY + VERTICAL_BOUND/2;
-                step++;
-            }
-            else {
-
-                path.lineTo(x, y);
-
-                y+=VERTICAL_BOUND/2;
-            }
+            super.writeToParcel(out, flags);
+            out.writeString(text);
+            out.writeInt(config);
+            out.writeInt(alignment);
+            out.writeInt(renderMode);
+            out.writeInt(color);
+            out.writeInt(delay);
+            out.writeInt(state);
+            out.writeFloat(sizeFactor);
+            out.writeFloat(letterSpacing);
+            out.writeFloat(lineSpacing);
+            out.writeFloat(width);
+            out.writeFloat(progress);
+            out.writeLong(duration);
+            out.writeInt(reversing ? 1 : 0);
         }
-        else if(step == 2){
-
-            if(sweepAngle < -180){
-
-                x = centreX + 3*HORIZONTAL_BOUND/4;
-                sweepAngle = 0;
-                step++;
-            }
-            else {
 
-                RectF rect = new RectF();
-                rect.set(centreX - 3*HORIZONTAL_BOUND/4,
-                        centreY - VERTICAL_BOUND/8, //for rounded figure
-                        centreX + 3*HORIZONTAL_BOUND/4,
-                        centreY + VERTICAL_BOUND);
+        public static final Parcelable.Creator<SavedState> CREATOR = new Parcelable.Creator<SavedState>() {
 
-                path.addArc (rect, -180, sweepAngle);
+            @Override
+            public SavedState createFromParcel(Parcel in) {
 
-                sweepAngle-=45;
+                return new SavedState(in);
             }
-        }
-        else if(step == 3){
-
-            if(y < centreY - VERTICAL_BOUND){
-
-                step++;
-                adjust();
-            }
-            else {
 
-                path.lineTo(x, y);
+            @Override
+            public SavedState[] newArray(int size) {
 
-                y-=VERTICAL_BOUND/2;
+                return new SavedState[size];
             }
-        }
+        };
     }
 
-    private void drawV(){
+    public interface Listener {
 
-        if(step == 1){
+        //callback method triggered after drawing is finished
+        void WritingFinished();
+    }
 
-            if(x > centreX - HORIZONTAL_BOUND/8 && y > centreY + VERTICAL_BOUND){
+    /**
+     * How a text of the queue looks and how it takes over from the text before it. Everything
+     * that isn't set stays as it is
+     */
+    public static class Style {
 
-                x = centreX + HORIZONTAL_BOUND/8;
-                y = centreY + VERTICAL_BOUND;
-                path.lineTo(x, y);
-                step++;
-            }
-            else {
+        private Integer color;
+        private Float width;
+        private long hold, transitionDuration = 500;
+        private Transition transition = Transition.NONE;
 
-                path.lineTo(x, y);
+        public Style setColor(int color){
 
-                x+=HORIZONTAL_BOUND/4 - HORIZONTAL_BOUND/32;
-                y+=VERTICAL_BOUND/2;
-            }
+            this.color = color;
+            return this;
         }
-        else if(step == 2){
-
-            if(x > centreX + HORIZONTAL_BOUND && y < centreY + VERTICAL_BOUND/2){
-
-                step++;
-                adjust();
-            }
-            else {
 
-                path.lineTo(x, y);
+        public Style setWidth(float width){
 
-                x+=HORIZONTAL_BOUND/4 - HORIZONTAL_BOUND/32;
-                y-=VERTICAL_BOUND/2;
-            }
+            this.width = width;
+            return this;
         }
-    }
-
-    private void drawW(){
-
-        if(step == 1){
 
-            if(x > centreX - HORIZONTAL_BOUND/2 - HORIZONTAL_BOUND/16 && y > centreY + VERTICAL_BOUND){
-
-                x = centreX - HORIZONTAL_BOUND/2 + HORIZONTAL_BOUND/16;
-                y = centreY + VERTICAL_BOUND;
-                path.lineTo(x, y);
-                step++;
-            }
-            else {
+        /**
+         * @param hold the time in milliseconds the text stays once it is written, before the next
+         * text takes over
+         */
+        public Style setHold(long hold){
 
-                path.lineTo(x, y);
-
-                x+=HORIZONTAL_BOUND/8 - HORIZONTAL_BOUND/128;
-                y+=VERTICAL_BOUND/2;
-            }
+            this.hold = hold;
+            return this;
         }
-        else if(step == 2){
 
-            path.lineTo(centreX - HORIZONTAL_BOUND/16, centreY - VERTICAL_BOUND);
-            path.lineTo(centreX + HORIZONTAL_BOUND/16, centreY - VERTICAL_BOUND);
-            step++;
-        }
-        else if(step == 3){
+        /**
+         * @param transition how the text takes over from the text before it
+         * @param duration the time in milliseconds the transition takes
+         */
+        public Style setTransition(Transition transition, long duration){
 
-            path.lineTo(centreX + HORIZONTAL_BOUND/2 - HORIZONTAL_BOUND/16, centreY + VERTICAL_BOUND);
-            x = centreX + HORIZONTAL_BOUND/2 + HORIZONTAL_BOUND/16;
-            y = centreY + VERTICAL_BOUND;
-            path.lineTo(x, y);
-            step++;
+            this.transition = transition;
+            this.transitionDuration = duration;
+            return this;
         }
-        else if(step == 4){
+    }
 
-            if(x > centreX + HORIZONTAL_BOUND && y < centreY - VERTICAL_BOUND){
+    public enum Playback{
 
-                step++;
-                adjust();
-            }
-            else {
+        //the text is written once
+        FORWARD,
 
-                path.lineTo(x, y);
+        //the text starts written and is un-written once
+        REVERSE,
 
-                x+=HORIZONTAL_BOUND/8 - HORIZONTAL_BOUND/128;
-                y-=VERTICAL_BOUND/2;
-            }
-        }
+        //the text is written and un-written over and over, it never finishes
+        PING_PONG
     }
 
-    private void drawX(){
+    public enum Transition{
 
-        if(step == 1){
+        //the text before is cleared at once
+        NONE,
 
-            if(x > centreX - HORIZONTAL_BOUND && y > centreY + VERTICAL_BOUND){
+        //the text before fades out while the text is written
+        CROSSFADE,
 
-                x = centreX + HORIZONTAL_BOUND;
-                y = centreY - VERTICAL_BOUND;
-                path.moveTo(x, y);
-                step++;
-            }
-            else {
-
-                path.lineTo(x, y);
-
-                x+=HORIZONTAL_BOUND/2;
-                y+=VERTICAL_BOUND/2;
-            }
-        }
-        else if(step == 2){
+        //the text before is un-written, stroke by stroke backwards, before the text is written
+        ERASE
+    }
 
-            if(x < centreX - HORIZONTAL_BOUND && y > centreY + VERTICAL_BOUND){
+    private static final class QueuedText {
 
-                step++;
-                adjust();
-            }
-            else {
+        final String text;
+        final Style style;
+        PreparedLayout prepared;
+        boolean preparing;
 
-                path.lineTo(x, y);
+        QueuedText(String text, Style style) {
 
-                x-=HORIZONTAL_BOUND/2;
-                y+=VERTICAL_BOUND/2;
-            }
+            this.text = text;
+            this.style = style;
         }
     }
 
-    private void drawY(){
-
-        if(step == 1){
-
-            if(x > centreX && y > centreY){
+    /**
+     * A text fitted and laid out in the background, which is never changed once it is handed over
+     */
+    private static final class PreparedLayout {
 
-                x = centreX;
-                y = centreY;
-                step++;
-            }
-            else {
+        final LayoutSettings settings;
+        final String text;
+        final float width, height, verticalBound;
+        final TextLayout layout;
+        final StrokeTimeline timeline;
 
-                path.lineTo(x, y);
+        /**
+         * @param verticalBound the bound the text is fitted to
+         * @param layout the layout of the text, null for a timeline copied from the cache
+         */
+        PreparedLayout(LayoutSettings settings, String text, float width, float height,
+                       float verticalBound, TextLayout layout, StrokeTimeline timeline) {
 
-                x+=HORIZONTAL_BOUND/2;
-                y+=VERTICAL_BOUND/2;
-            }
+            this.settings = settings;
+            this.text = text;
+            this.width = width;
+            this.height = height;
+            this.verticalBound = verticalBound;
+            this.layout = layout;
+            this.timeline = timeline;
         }
-        else if(step == 2){
 
-            if(x > centreX + HORIZONTAL_BOUND && y < centreY - VERTICAL_BOUND){
+        /**
+         * @return whether the text is laid out the same with the settings on a canvas of the
+         * given size
+         */
+        boolean matches(LayoutSettings settings, float width, float height){
 
-                x = centreX;
-                y = centreY;
-                path.moveTo(x, y);
-                step++;
-            }
-            else {
-
-                path.lineTo(x, y);
-
-                x+=HORIZONTAL_BOUND/2;
-                y-=VERTICAL_BOUND/2;
-            }
+            return this.settings.equals(settings) && this.width == width && this.height == height;
         }
-        else if(step == 3){
+    }
 
-            if(y > centreY + VERTICAL_BOUND){
+    /**
+     * The settings a text is laid out with, read on the main thread so that the text can be
+     * fitted and laid out on any other
+     */
+    private static final class LayoutSettings {
 
-                step++;
-                adjust();
-            }
-            else {
+        final Typeface typeface;
+        final GlyphRegistry glyphRegistry;
+        final Configuration config;
+        final TextLayout.Alignment alignment;
+        final boolean autoFit;
+        final float sizeFactor, letterSpacing, lineSpacing, inset;
 
-                path.lineTo(x, y);
+        LayoutSettings(Typeface typeface, GlyphRegistry glyphRegistry, Configuration config,
+                       TextLayout.Alignment alignment, boolean autoFit, float sizeFactor,
+                       float letterSpacing, float lineSpacing, float inset) {
 
-                y+=VERTICAL_BOUND/2;
-            }
+            this.typeface = typeface;
+            this.glyphRegistry = glyphRegistry;
+            this.config = config;
+            this.alignment = alignment;
+            this.autoFit = autoFit;
+            this.sizeFactor = sizeFactor;
+            this.letterSpacing = letterSpacing;
+            this.lineSpacing = lineSpacing;
+            this.inset = inset;
         }
-    }
 
-    private void drawZ(){
+        float getHorizontalBound(float verticalBound){
 
-        if(step == 1){
+            return TextWriter.getHorizontalBound(config, verticalBound);
+        }
 
-            if(x > centreX + HORIZONTAL_BOUND){
+        /**
+         * @return the size factor, or the largest one at which the text fits a canvas of the
+         * given size with auto-fit
+         * @throws RuntimeException if the text to fit doesn't follow the rules
+         */
+        float getVerticalBound(String text, float width, float height) throws RuntimeException {
 
-                x = centreX + HORIZONTAL_BOUND;
-                y = centreY - VERTICAL_BOUND + VERTICAL_BOUND/8;
-                path.lineTo(x, y);
-                step++;
-            }
-            else {
+            if(!autoFit || text == null)
+                return sizeFactor;
 
-                path.lineTo(x, y);
+            //the text is measured once at the size factor
+            float scale = createLayout(sizeFactor).fit(text, width, height);
 
-                x+=HORIZONTAL_BOUND/2;
-            }
+            return scale > 0 ? sizeFactor * scale : sizeFactor;
         }
-        else if(step == 2){
 
-            if(x < centreX - HORIZONTAL_BOUND && y > centreY + VERTICAL_BOUND - VERTICAL_BOUND/8){
+        TextLayout createLayout(float verticalBound){
 
-                x = centreX - HORIZONTAL_BOUND;
-                y = centreY + VERTICAL_BOUND;
-                path.lineTo(x, y);
-                step++;
-            }
-            else {
+            float horizontalBound = getHorizontalBound(verticalBound);
 
-                path.lineTo(x, y);
+            TextLayout layout;
+            if(typeface != null)
+                layout = new TextLayout(new TypefaceGlyphs(typeface, horizontalBound, verticalBound), verticalBound, letterSpacing, lineSpacing, alignment);
+            else
+                layout = new TextLayout(glyphRegistry, horizontalBound, verticalBound, letterSpacing, lineSpacing, alignment);
 
-                x-=HORIZONTAL_BOUND/2;
-                y+=VERTICAL_BOUND/2 - VERTICAL_BOUND/16;
-            }
+            return layout.setInset(inset);
         }
-        else if(step == 3) {
-
-            if(x > centreX + HORIZONTAL_BOUND){
 
-                step++;
-                adjust();
-            }
-            else {
+        LayoutCache.Key createKey(String text, float verticalBound, float width, float height){
 
-                path.lineTo(x, y);
-
-                x+=HORIZONTAL_BOUND/2;
-            }
+            return new LayoutCache.Key(text, typeface != null ? typeface : glyphRegistry,
+                    getHorizontalBound(verticalBound), verticalBound, letterSpacing, lineSpacing,
+                    alignment, inset, width, height);
         }
-    }
 
-    private void startDrawing() {
-
-        switch (currentCharacter){
-
-            case 'A': startDrawingA();break;
-            case 'B': startDrawingB();break;
-            case 'C': startDrawingC();break;
-            case 'D': startDrawingD();break;
-            case 'E': startDrawingE();break;
-            case 'F': startDrawingF();break;
-            case 'G': startDrawingG();break;
-            case 'H': startDrawingH();break;
-            case 'I': startDrawingI();break;
-            case 'J': startDrawingJ();break;
-            case 'K': startDrawingK();break;
-            case 'L': startDrawingL();break;
-            case 'M': startDrawingM();break;
-            case 'N': startDrawingN();break;
-            case 'O': startDrawingO();break;
-            case 'P': startDrawingP();break;
-            case 'Q': startDrawingQ();break;
-            case 'R': startDrawingR();break;
-            case 'S': startDrawingS();break;
-            case 'T': startDrawingT();break;
-            case 'U': startDrawingU();break;
-            case 'V': startDrawingV();break;
-            case 'W': startDrawingW();break;
-            case 'X': startDrawingX();break;
-            case 'Y': startDrawingY();break;
-            case 'Z': startDrawingZ();break;
-            case ' ': startDrawingSpace();break;
-        }
-    }
-
-    private void continueDrawing(){
-
-        switch (currentCharacter){
-
-            case 'A': drawA();break;
-            case 'B': drawB();break;
-            case 'C': drawC();break;
-            case 'D': drawD();break;
-            case 'E': drawE();break;
-            case 'F': drawF();break;
-            case 'G': drawG();break;
-            case 'H': drawH();break;
-            case 'I': drawI();break;
-            case 'J': drawJ();break;
-            case 'K': drawK();break;
-            case 'L': drawL();break;
-            case 'M': drawM();break;
-            case 'N': drawN();break;
-            case 'O': drawO();break;
-            case 'P': drawP();break;
-            case 'Q': drawQ();break;
-            case 'R': drawR();break;
-            case 'S': drawS();break;//fix
-            case 'T': drawT();break;
-            case 'U': drawU();break;
-            case 'V': drawV();break;
-            case 'W': drawW();break;
-            case 'X': drawX();break;
-            case 'Y': drawY();break;
-            case 'Z': drawZ();break;
-        }
-    }
-
-    private void adjust(){
-
-        //shifts the centreX to the end of the canvas(for that letter) after drawing it
-        if(currentCharacter == 'I')
-            centreX += 0;
-        else if(currentCharacter == 'C' || currentCharacter == 'G')
-            centreX += HORIZONTAL_BOUND * Math.cos(-315*Math.PI/180);
-        else if(currentCharacter == ' ')
-            centreX += HORIZONTAL_BOUND / 2;
-        else if(currentCharacter == 'J' || currentCharacter == 'U' || currentCharacter == 'L')
-            centreX += 3 * HORIZONTAL_BOUND / 4;
-        else
-            centreX += HORIZONTAL_BOUND;
+        @Override
+        public boolean equals(Object o) {
 
-        //checks for next letter if exists
-        if(currentPosition + 1 < text.length()) {
+            if(!(o instanceof LayoutSettings))
+                return false;
 
-            currentPosition++;
-            currentCharacter = text.charAt(currentPosition);
-            setCentreX(currentCharacter);
-            startDrawing();
+            LayoutSettings settings = (LayoutSettings) o;
+            return (typeface != null ? typeface.equals(settings.typeface) : settings.typeface == null)
+                    && glyphRegistry == settings.glyphRegistry && config == settings.config
+                    && alignment == settings.alignment && autoFit == settings.autoFit
+                    && sizeFactor == settings.sizeFactor && letterSpacing == settings.letterSpacing
+                    && lineSpacing == settings.lineSpacing && inset == settings.inset;
         }
-        else {
 
-            Log.e("boom", centreX+"");
+        @Override
+        public int hashCode() {
 
-            //stop drawing
-            if(listener != null)
-                listener.WritingFinished();
+            int hash = typeface != null ? typeface.hashCode() : 0;
+            hash = 31 * hash + glyphRegistry.hashCode();
+            hash = 31 * hash + config.hashCode();
+            hash = 31 * hash + alignment.hashCode();
+            hash = 31 * hash + (autoFit ? 1 : 0);
+            hash = 31 * hash + Float.floatToIntBits(sizeFactor);
+            hash = 31 * hash + Float.floatToIntBits(letterSpacing);
+            hash = 31 * hash + Float.floatToIntBits(lineSpacing);
+            hash = 31 * hash + Float.floatToIntBits(inset);
+            return hash;
         }
     }
 
-    private void setCentreX(char currentCharacter){
+    public interface PrepareCallback {
 
-        //sets the centreX as the centre of the canvas for the next letter
-        if(currentCharacter == 'I')
-            centreX += GAP;
-        else if(currentCharacter == ' ')
-            centreX += HORIZONTAL_BOUND / 2;
-        else if(currentCharacter == 'J' || currentCharacter == 'U' || currentCharacter == 'L')
-            centreX += GAP + 3 * HORIZONTAL_BOUND / 4;
-        else
-            centreX += GAP + HORIZONTAL_BOUND;
+        //called on the main thread once the text is laid out, startAnimation() only draws it
+        void onPrepared();
+
+        //called on the main thread if the text can't be laid out
+        void onPrepareFailed(RuntimeException e);
     }
 
-    public interface Listener {
+    public interface MetricsListener {
 
-        //callback method triggered after drawing is finished
-        void WritingFinished();
+        /**
+         * Called once a pass over a text is done: the text is written, un-written in reverse,
+         * turned around by a ping-pong, jumped to its end or started again. The metrics are
+         * reused for the next pass, so read or copy them before returning
+         */
+        void onWritingMeasured(WritingMetrics metrics);
     }
 }
 
@@ -0,0 +1,370 @@
+
+/*
+ *
+ * MIT License
+ *
+ * Copyright (c) 2020 Sarnava Konar
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.sarnava.textwriter;
+
+import android.animation.TimeInterpolator;
+import android.graphics.Bitmap;
+import android.graphics.Canvas;
+import android.graphics.Color;
+import android.graphics.Paint;
+import android.graphics.Path;
+import android.graphics.PorterDuff;
+import android.graphics.Typeface;
+
+import com.sarnava.textwriter.core.Easing;
+import com.sarnava.textwriter.core.GlyphRegistry;
+import com.sarnava.textwriter.core.Stagger;
+import com.sarnava.textwriter.core.StrokePlayer;
+import com.sarnava.textwriter.core.StrokeTimeline;
+import com.sarnava.textwriter.core.TextLayout;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Renders the writing of a text frame by frame into a {@link Bitmap} without any {@link
+ * android.view.View}, for turning it into an image sequence or a video. Frames are rendered as
+ * fast as they can be, the time of every frame is derived from the frame rate. Call it from a
+ * background thread
+ */
+public class TextWriterExporter {
+
+    private final int width, height;
+    private final Paint paint;
+    private final Path path = new Path(), scratch = new Path();
+    private final PathRenderer pathRenderer = new PathRenderer(path);
+    private final PathRenderer scratchRenderer = new PathRenderer(scratch);
+    private final StrokeTimeline timeline = new StrokeTimeline();
+    private final StrokePlayer player = new StrokePlayer();
+    private final Bitmap frame, cache;
+    private final Canvas frameCanvas, cacheCanvas;
+
+    private int DELAY = 20, backgroundColor = Color.TRANSPARENT;
+    private float frameRate = 30;
+    private long duration;
+    private TextWriter.Playback playback = TextWriter.Playback.FORWARD;
+    private float VERTICAL_BOUND = 100f, GAP = 50f, LINE_SPACING = 50f;
+    private TextWriter.Configuration config = TextWriter.Configuration.RECTANGLE;
+    private TextLayout.Alignment alignment = TextLayout.Alignment.CENTER;
+    private GlyphRegistry glyphRegistry = GlyphRegistry.getDefault();
+    private Typeface typeface;
+
+    /**
+     * @param width the width of the frames in pixels
+     * @param height the height of the frames in pixels
+     */
+    public TextWriterExporter(int width, int height) {
+
+        this.width = width;
+        this.height = height;
+
+        paint = PathRenderer.createPaint();
+
+        frame = Bitmap.createBitmap(width, height, Bitmap.Config.ARGB_8888);
+        cache = Bitmap.createBitmap(width, height, Bitmap.Config.ARGB_8888);
+        frameCanvas = new Canvas(frame);
+        cacheCanvas = new Canvas(cache);
+    }
+
+    public TextWriterExporter setColor(int color){
+
+        paint.setColor(color);
+        return this;
+    }
+
+    public TextWriterExporter setWidth(float width){
+
+        paint.setStrokeWidth(width);
+        return this;
+    }
+
+    /**
+     * @param color the color every frame is filled with before the text is drawn, transparent
+     * by default
+     */
+    public TextWriterExporter setBackgroundColor(int color){
+
+        this.backgroundColor = color;
+        return this;
+    }
+
+    /**
+     * @param frameRate the number of frames per second of the writing
+     */
+    public TextWriterExporter setFrameRate(float frameRate){
+
+        this.frameRate = frameRate;
+        return this;
+    }
+
+    /**
+     * @see TextWriter#setDelay(int)
+     */
+    public TextWriterExporter setDelay(int delay){
+
+        DELAY = delay;
+        return this;
+    }
+
+    /**
+     * @see TextWriter#setDuration(long)
+     */
+    public TextWriterExporter setDuration(long duration){
+
+        this.duration = duration;
+        return this;
+    }
+
+    /**
+     * @see TextWriter#setEasing(Easing)
+     */
+    public TextWriterExporter setEasing(Easing easing){
+
+        player.setEasing(easing);
+        return this;
+    }
+
+    /**
+     * @see TextWriter#setEasingInterpolator(TimeInterpolator)
+     */
+    public TextWriterExporter setEasingInterpolator(TimeInterpolator interpolator){
+
+        return setEasing(new InterpolatorEasing(interpolator));
+    }
+
+    /**
+     * @see TextWriter#setStrokeEasing(Easing)
+     */
+    public TextWriterExporter setStrokeEasing(Easing easing){
+
+        player.setStrokeEasing(easing);
+        return this;
+    }
+
+    /**
+     * @see TextWriter#setStrokeEasingInterpolator(TimeInterpolator)
+     */
+    public TextWriterExporter setStrokeEasingInterpolator(TimeInterpolator interpolator){
+
+        return setStrokeEasing(new InterpolatorEasing(interpolator));
+    }
+
+    /**
+     * @see TextWriter#setStagger(Stagger)
+     */
+    public TextWriterExporter setStagger(Stagger stagger){
+
+        player.setStagger(stagger);
+        return this;
+    }
+
+    /**
+     * Sets the direction of the writing, a {@link TextWriter.Playback#PING_PONG} is rendered as
+     * a single round trip since it never finishes otherwise
+     *
+     * @see TextWriter#setPlayback(TextWriter.Playback)
+     */
+    public TextWriterExporter setPlayback(TextWriter.Playback playback){
+
+        this.playback = playback;
+        return this;
+    }
+
+    public TextWriterExporter setSizeFactor(float sizeFactor){
+
+        VERTICAL_BOUND = sizeFactor;
+        return this;
+    }
+
+    public TextWriterExporter setLetterSpacing(float spacing){
+
+        GAP = spacing;
+        return this;
+    }
+
+    public TextWriterExporter setLineSpacing(float spacing){
+
+        LINE_SPACING = spacing;
+        return this;
+    }
+
+    public TextWriterExporter setAlignment(TextLayout.Alignment alignment){
+
+        this.alignment = alignment;
+        return this;
+    }
+
+    public TextWriterExporter setConfig(TextWriter.Configuration config){
+
+        this.config = config;
+        return this;
+    }
+
+    public TextWriterExporter setGlyphRegistry(GlyphRegistry registry){
+
+        this.glyphRegistry = registry;
+        return this;
+    }
+
+    public TextWriterExporter setTypeface(Typeface typeface){
+
+        this.typeface = typeface;
+        return this;
+    }
+
+    /**
+     * Renders every text one after the other, {@param sink} gets the frames of each of them
+     *
+     * @throws RuntimeException if a text doesn't follow the rules
+     */
+    public void exportAll(List<? extends CharSequence> texts, FrameSink sink) throws IOException {
+
+        for(int i=0; i<texts.size(); i++)
+            export(i, texts.get(i), sink);
+    }
+
+    /**
+     * Renders the writing of the text, from the first frame with nothing written to the last one
+     * with the whole text written, or the other way round for a reversed playback
+     *
+     * @throws RuntimeException if the text doesn't follow the rules
+     */
+    public void export(CharSequence text, FrameSink sink) throws IOException {
+
+        export(0, text, sink);
+    }
+
+    private void export(int textIndex, CharSequence text, FrameSink sink) throws IOException {
+
+        float horizontalBound = TextWriter.getHorizontalBound(config, VERTICAL_BOUND);
+
+        TextLayout layout;
+        if(typeface != null)
+            layout = new TextLayout(new TypefaceGlyphs(typeface, horizontalBound, VERTICAL_BOUND), VERTICAL_BOUND, GAP, LINE_SPACING, alignment);
+        else
+            layout = new TextLayout(glyphRegistry, horizontalBound, VERTICAL_BOUND, GAP, LINE_SPACING, alignment);
+        layout.setInset(paint.getStrokeWidth()/2).layout(text, width, height, timeline);
+
+        //the text is played the same way the view plays it
+        player.start(timeline);
+        long durationNanos = duration > 0
+                ? duration * 1000000L
+                : (long) (player.getPacedLength() / (VERTICAL_BOUND/2) * DELAY * 1000000L);
+        double frameNanos = 1000000000.0 / frameRate;
+        int passes = playback == TextWriter.Playback.PING_PONG ? 2 : 1;
+
+        cache.eraseColor(Color.TRANSPARENT);
+
+        for(int index = 0; ; index++){
+
+            long time = (long) (index * frameNanos);
+            float passTime = time < (long) passes * durationNanos ? (float) ((double) time / durationNanos) : passes;
+
+            //a ping-pong turns around after the first pass
+            float position = passTime > 1 ? 2 - passTime : passTime;
+            if(playback == TextWriter.Playback.REVERSE)
+                position = 1 - position;
+
+            path.reset();
+            scratch.reset();
+
+            //the letters written completely are flattened into the cache, the same way the view
+            //does it. Moving back past a letter draws the cache again
+            if(!player.reveal(position, scratchRenderer, pathRenderer)) {
+
+                cache.eraseColor(Color.TRANSPARENT);
+                scratch.reset();
+                player.drawCompleted(scratchRenderer);
+            }
+            cacheCanvas.drawPath(scratch, paint);
+
+            frameCanvas.drawColor(backgroundColor, PorterDuff.Mode.SRC);
+            frameCanvas.drawBitmap(cache, 0, 0, null);
+            frameCanvas.drawPath(path, paint);
+
+            sink.onFrame(textIndex, index, time, frame);
+
+            if(passTime >= passes)
+                break;
+        }
+    }
+
+    /**
+     * Frees the bitmaps the frames are rendered into, the exporter can't be used afterwards
+     */
+    public void release(){
+
+        frame.recycle();
+        cache.recycle();
+    }
+
+    /**
+     * Receives the rendered frames, for example to encode them into a video
+     */
+    public interface FrameSink {
+
+        /**
+         * @param textIndex the index of the text being written within the batch
+         * @param frameIndex the index of the frame within the writing of the text
+         * @param timeNanos the time of the frame since the writing started
+         * @param frame the rendered frame, which is reused for the next one so it has to be
+         * consumed before returning
+         */
+        void onFrame(int textIndex, int frameIndex, long timeNanos, Bitmap frame) throws IOException;
+    }
+
+    /**
+     * Writes every frame as a PNG file named after the indices of the text and the frame, like
+     * {@code 0_0012.png}
+     */
+    public static class PngSequenceSink implements FrameSink {
+
+        private final File directory;
+
+        public PngSequenceSink(File directory) {
+
+            this.directory = directory;
+        }
+
+        @Override
+        public void onFrame(int textIndex, int frameIndex, long timeNanos, Bitmap frame) throws IOException {
+
+            String name = String.format(Locale.US, "%d_%04d.png", textIndex, frameIndex);
+
+            OutputStream out = new FileOutputStream(new File(directory, name));
+            try {
+                frame.compress(Bitmap.CompressFormat.PNG, 100, out);
+            } finally {
+                out.close();
+            }
+        }
+    }
+}
@@ -0,0 +1,225 @@
+
+/*
+ *
+ * MIT License
+ *
+ * Copyright (c) 2020 Sarnava Konar
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.sarnava.textwriter;
+
+import android.graphics.Paint;
+import android.graphics.Path;
+import android.graphics.PathMeasure;
+import android.graphics.Rect;
+import android.graphics.RectF;
+import android.graphics.Typeface;
+import android.util.LruCache;
+
+import com.sarnava.textwriter.core.Glyph;
+import com.sarnava.textwriter.core.GlyphSource;
+
+/**
+ * Turns the letters of a {@link Typeface} into glyphs, so any text and script the font covers
+ * can be written. The outline of a letter is taken from {@link Paint#getTextPath} and flattened
+ * into lines by walking its contours with a {@link PathMeasure}. The capitals of the font are as
+ * tall as the regular letters, the horizontal bound squeezes the letters the same way it does
+ * for the shipped glyphs
+ */
+final class TypefaceGlyphs implements GlyphSource {
+
+    //the distance b/w two points sampled along a contour, in pixels
+    private static final float STEP = 2;
+
+    //a sampled point is dropped when it is this close to the line through its neighbours
+    private static final float TOLERANCE = 1/4f;
+
+    //the outlines of all the views together, weighed by their number of segments
+    private static final int CACHE_SIZE = 64 * 1024;
+
+    private static final LruCache<Key, Glyph> CACHE = new LruCache<Key, Glyph>(CACHE_SIZE) {
+
+        @Override
+        protected int sizeOf(Key key, Glyph glyph) {
+
+            return glyph.getSegmentCount() + 1;
+        }
+    };
+
+    private final Typeface typeface;
+    private final float horizontalBound, verticalBound;
+    private final Paint paint = new Paint();
+    private final Path outline = new Path();
+    private final PathMeasure measure = new PathMeasure();
+    private final RectF bounds = new RectF();
+    private final float[] point = new float[2];
+
+    /**
+     * @param horizontalBound half the width of a regular letter
+     * @param verticalBound half the height of a capital letter
+     */
+    TypefaceGlyphs(Typeface typeface, float horizontalBound, float verticalBound) {
+
+        this.typeface = typeface;
+        this.horizontalBound = horizontalBound;
+        this.verticalBound = verticalBound;
+
+        paint.setTypeface(typeface);
+
+        //finds the text size at which the capitals are as tall as a letter
+        Rect capital = new Rect();
+        paint.setTextSize(100);
+        paint.getTextBounds("H", 0, 1, capital);
+        paint.setTextSize(capital.height() > 0 ? 100 * 2*verticalBound / capital.height() : 2*verticalBound);
+        paint.setTextScaleX(horizontalBound / verticalBound);
+    }
+
+    @Override
+    public Glyph getGlyph(int codePoint) {
+
+        if(codePoint < 0 || codePoint > Character.MAX_CODE_POINT)
+            return null;
+
+        Key key = new Key(typeface, codePoint, horizontalBound, verticalBound);
+        Glyph glyph = CACHE.get(key);
+
+        if(glyph == null) {
+
+            glyph = extract(codePoint);
+            CACHE.put(key, glyph);
+        }
+        return glyph;
+    }
+
+    private synchronized Glyph extract(int codePoint){
+
+        String character = new String(Character.toChars(codePoint));
+
+        //the outline is placed on the baseline of the letter, which is a vertical bound below its
+        //centre
+        outline.reset();
+        paint.getTextPath(character, 0, character.length(), 0, verticalBound, outline);
+        outline.computeBounds(bounds, true);
+
+        //letters without any ink still take their advance
+        if(bounds.isEmpty()) {
+
+            float half = paint.measureText(character) / 2;
+            return new Glyph.Builder(half, half).build();
+        }
+
+        float centreX = bounds.centerX(), half = bounds.width() / 2;
+        Glyph.Builder builder = new Glyph.Builder(half, half);
+
+        measure.setPath(outline, true);
+        do {
+            addContour(builder, measure.getLength(), centreX);
+        } while (measure.nextContour());
+
+        return builder.build();
+    }
+
+    /**
+     * Samples the current contour at every {@link #STEP} and adds the points that don't lie on a
+     * straight line with their neighbours
+     */
+    private void addContour(Glyph.Builder builder, float length, float centreX){
+
+        if(length <= 0)
+            return;
+
+        measure.getPosTan(0, point, null);
+        float startX = point[0] - centreX, startY = point[1];
+        builder.moveTo(startX, startY);
+
+        float lastX = startX, lastY = startY, previousX = startX, previousY = startY;
+        int steps = (int) Math.ceil(length / STEP);
+        for(int i=1; i<=steps; i++){
+
+            measure.getPosTan(Math.min(length, i * STEP), point, null);
+            float x = point[0] - centreX, y = point[1];
+
+            if(i > 1 && distance(previousX, previousY, lastX, lastY, x, y) > TOLERANCE) {
+
+                builder.lineTo(previousX, previousY);
+                lastX = previousX;
+                lastY = previousY;
+            }
+            previousX = x;
+            previousY = y;
+        }
+
+        //the contours are closed
+        builder.lineTo(previousX, previousY);
+        if(previousX != startX || previousY != startY)
+            builder.lineTo(startX, startY);
+    }
+
+    /**
+     * @return the distance of the point (x, y) from the line through (x1, y1) and (x2, y2)
+     */
+    private static float distance(float x, float y, float x1, float y1, float x2, float y2){
+
+        float dx = x2 - x1, dy = y2 - y1;
+        float length = (float) Math.hypot(dx, dy);
+
+        if(length == 0)
+            return (float) Math.hypot(x - x1, y - y1);
+
+        return Math.abs(dy * (x - x1) - dx * (y - y1)) / length;
+    }
+
+    private static final class Key {
+
+        private final Typeface typeface;
+        private final int codePoint;
+        private final float horizontalBound, verticalBound;
+
+        Key(Typeface typeface, int codePoint, float horizontalBound, float verticalBound) {
+
+            this.typeface = typeface;
+            this.codePoint = codePoint;
+            this.horizontalBound = horizontalBound;
+            this.verticalBound = verticalBound;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+
+            if(!(o instanceof Key))
+                return false;
+
+            Key key = (Key) o;
+            return typeface.equals(key.typeface) && codePoint == key.codePoint
+                    && horizontalBound == key.horizontalBound && verticalBound == key.verticalBound;
+        }
+
+        @Override
+        public int hashCode() {
+
+            int hash = typeface.hashCode();
+            hash = 31 * hash + codePoint;
+            hash = 31 * hash + Float.floatToIntBits(horizontalBound);
+            hash = 31 * hash + Float.floatToIntBits(verticalBound);
+            return hash;
+        }
+    }
+}